@@ -0,0 +1,78 @@
+/**
+ * Copyright 2009 Humboldt University of Berlin, INRIA.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.corpus_tools.peppermodules.TCFModules.benchmarks;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collection;
+import java.util.Collections;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ScalarResult;
+
+/**
+ * This profiler reports the bytes allocated per token for benchmarks having a
+ * "tokens" parameter, which gives the number of tokens processed by a single
+ * operation. The allocation is measured by the {@link com.sun.management.ThreadMXBean} of the
+ * benchmark JVM for all live threads, so it only works with HotSpot
+ * compatible JVMs. Use it with "-prof
+ * org.corpus_tools.peppermodules.TCFModules.benchmarks.AllocationPerTokenProfiler".
+ */
+public class AllocationPerTokenProfiler implements InternalProfiler {
+	/** the name of the parameter giving the tokens per operation */
+	private static final String PARAM_TOKENS = "tokens";
+	/** the bytes allocated before the current iteration */
+	private long allocatedBefore;
+
+	@Override
+	public String getDescription() {
+		return "bytes allocated per token";
+	}
+
+	@Override
+	public void beforeIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams) {
+		allocatedBefore = getAllocatedBytes();
+	}
+
+	@Override
+	public Collection<? extends Result> afterIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams, IterationResult result) {
+		String tokens = benchmarkParams.getParam(PARAM_TOKENS);
+		long ops = result.getMetadata().getMeasuredOps();
+		if (tokens == null || ops == 0) {
+			return Collections.emptyList();
+		}
+		double allocated = getAllocatedBytes() - allocatedBefore;
+		return Collections.singletonList(new ScalarResult("alloc.per.token", allocated / ops / Long.parseLong(tokens), "B/token", AggregationPolicy.AVG));
+	}
+
+	/** returns the bytes allocated by all live threads so far */
+	private static long getAllocatedBytes() {
+		com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long bytes = 0;
+		for (long allocated : threadMXBean.getThreadAllocatedBytes(threadMXBean.getAllThreadIds())) {
+			if (allocated > 0) {
+				bytes += allocated;
+			}
+		}
+		return bytes;
+	}
+}
@@ -0,0 +1,167 @@
+/**
+ * Copyright 2009 Humboldt University of Berlin, INRIA.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.corpus_tools.peppermodules.TCFModules.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.corpus_tools.peppermodules.tcfModules.TCFExporterProperties;
+import org.corpus_tools.peppermodules.tcfModules.TCFMapperExport;
+import org.corpus_tools.salt.SaltFactory;
+import org.corpus_tools.salt.common.SDocument;
+import org.corpus_tools.salt.common.SDocumentGraph;
+import org.corpus_tools.salt.common.SSpan;
+import org.corpus_tools.salt.common.STextualDS;
+import org.corpus_tools.salt.common.SToken;
+import org.eclipse.emf.common.util.URI;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This benchmark measures the export of a document by
+ * {@link TCFMapperExport#mapSDocument()}. The document is built once per
+ * trial, it consists of the given number of tokens, which are grouped in
+ * sentences of ten tokens, lines of five tokens and pages of fifty tokens,
+ * each token has a POS and a lemma annotation. Besides the exported
+ * documents per second, the bytes written per second are reported as
+ * "bytes". The allocation per token is reported by
+ * {@link AllocationPerTokenProfiler}, which is enabled by default in the
+ * benchmark profile.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx4g" })
+public class TCFMapperExportBenchmark {
+	private static final int SENTENCE_LENGTH = 10;
+	private static final int LINE_LENGTH = 5;
+	private static final int PAGE_LENGTH = 50;
+
+	@Param({ "10000", "100000", "1000000" })
+	private int tokens;
+
+	@Param({ "false", "true" })
+	private boolean streaming;
+
+	/** the document to be exported */
+	private SDocument sDocument;
+	/** the folder the document is exported to */
+	private File folder;
+	/** the file the document is exported to */
+	private File file;
+
+	/** counts the bytes written by the benchmark */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	public static class Output {
+		public long bytes;
+
+		@Setup(Level.Iteration)
+		public void reset() {
+			bytes = 0;
+		}
+	}
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		sDocument = createDocument(tokens);
+		folder = Files.createTempDirectory("tcf-export").toFile();
+		file = new File(folder, "document.tcf");
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		file.delete();
+		folder.delete();
+	}
+
+	@Benchmark
+	public void exportDocument(Output output) {
+		TCFMapperExport mapper = new TCFMapperExport();
+		TCFExporterProperties properties = new TCFExporterProperties();
+		properties.setPropertyValue(TCFExporterProperties.PROP_STREAMING, streaming);
+		mapper.setProperties(properties);
+		mapper.setResourceURI(URI.createFileURI(file.getAbsolutePath()));
+		mapper.setDocument(sDocument);
+		mapper.mapSDocument();
+		output.bytes += file.length();
+	}
+
+	/**
+	 * This method creates a document with the given number of tokens and the
+	 * annotations exported by default.
+	 */
+	private static SDocument createDocument(int tokens) {
+		SDocument sDocument = SaltFactory.createSDocument();
+		sDocument.setDocumentGraph(SaltFactory.createSDocumentGraph());
+		SDocumentGraph sDocGraph = sDocument.getDocumentGraph();
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < tokens; i++) {
+			text.append(i == 0 ? "" : " ").append(getToken(i));
+		}
+		STextualDS sTextualDS = sDocGraph.createTextualDS(text.toString());
+		List<SToken> sTokens = new ArrayList<SToken>(tokens);
+		int start = 0;
+		for (int i = 0; i < tokens; i++) {
+			String token = getToken(i);
+			SToken sToken = sDocGraph.createToken(sTextualDS, start, start + token.length());
+			sToken.createAnnotation(null, "POS", i % SENTENCE_LENGTH == SENTENCE_LENGTH - 1 ? "$." : "NN");
+			sToken.createAnnotation(null, "LEMMA", token.toLowerCase());
+			sTokens.add(sToken);
+			start += token.length() + 1;
+		}
+		createSpans(sDocGraph, sTokens, PAGE_LENGTH, "textstructure", "page");
+		createSpans(sDocGraph, sTokens, LINE_LENGTH, "textstructure", "line");
+		createSpans(sDocGraph, sTokens, SENTENCE_LENGTH, "sentence", "sentence");
+		return sDocument;
+	}
+
+	/**
+	 * This method covers the tokens with consecutive spans of the given length,
+	 * which are annotated with the given name and value.
+	 */
+	private static void createSpans(SDocumentGraph sDocGraph, List<SToken> sTokens, int length, String name, String value) {
+		for (int i = 0; i < sTokens.size(); i += length) {
+			SSpan sSpan = sDocGraph.createSpan(sTokens.subList(i, Math.min(i + length, sTokens.size())));
+			sSpan.createAnnotation(null, name, value);
+		}
+	}
+
+	/** returns the text of the token at the given position */
+	private static String getToken(int i) {
+		return i % SENTENCE_LENGTH == SENTENCE_LENGTH - 1 ? "." : "Wort" + (i % 97);
+	}
+}
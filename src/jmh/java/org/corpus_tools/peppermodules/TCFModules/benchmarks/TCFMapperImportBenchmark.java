@@ -0,0 +1,110 @@
+/**
+ * Copyright 2009 Humboldt University of Berlin, INRIA.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.corpus_tools.peppermodules.TCFModules.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.corpus_tools.peppermodules.TCFModules.tests.TCFGenerator;
+import org.corpus_tools.peppermodules.tcfModules.TCFImporterProperties;
+import org.corpus_tools.peppermodules.tcfModules.TCFMapperImport;
+import org.corpus_tools.salt.SaltFactory;
+import org.corpus_tools.salt.common.SDocument;
+import org.eclipse.emf.common.util.URI;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This benchmark measures the import of a TCF document by
+ * {@link TCFMapperImport#mapSDocument()}. The inputs are the samples in
+ * src/test/resources/samples and synthetic documents written by
+ * {@link TCFGenerator} with all layers, whose names give their number of
+ * tokens, e.g. "synthetic-10000". The allocation rate is reported
+ * by the GC profiler, which is enabled by default in the benchmark profile.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TCFMapperImportBenchmark {
+	/** the folder containing the samples, relative to the project */
+	private static final String SAMPLES = "src/test/resources/samples/";
+	/** the prefix of the names of synthetic inputs */
+	private static final String SYNTHETIC = "synthetic-";
+
+	@Param({ "Bergleute_WebLicht_BitPar.xml", "Bergleute_WebLicht_BohnetParser.xml", "synthetic-10000", "synthetic-100000" })
+	private String input;
+
+	@Param({ "true", "false" })
+	private boolean shrinkTokenAnnotations;
+
+	@Param({ "true", "false" })
+	private boolean useCommonAnnotatedElement;
+
+	/** the TCF document to be imported */
+	private File file;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		if (input.startsWith(SYNTHETIC)) {
+			file = File.createTempFile(input, ".tcf");
+			new TCFGenerator(Long.parseLong(input.substring(SYNTHETIC.length()))).write(file);
+		} else {
+			file = new File(System.getProperty("tcf.samples", SAMPLES), input);
+			if (!file.isFile()) {
+				throw new IOException("Sample " + file.getAbsolutePath() + " not found, run the benchmark from the project folder or set -Dtcf.samples.");
+			}
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		if (input.startsWith(SYNTHETIC)) {
+			file.delete();
+		}
+	}
+
+	@Benchmark
+	public SDocument importDocument() {
+		TCFMapperImport mapper = new TCFMapperImport();
+		TCFImporterProperties properties = new TCFImporterProperties();
+		properties.setPropertyValue(TCFImporterProperties.PROP_SHRINK_TOKEN_ANNOTATIONS, shrinkTokenAnnotations);
+		properties.setPropertyValue(TCFImporterProperties.PROP_USE_COMMON_ANNOTATED_ELEMENT, useCommonAnnotatedElement);
+		mapper.setProperties(properties);
+		mapper.setResourceURI(URI.createFileURI(file.getAbsolutePath()));
+		SDocument sDocument = SaltFactory.createSDocument();
+		sDocument.setDocumentGraph(SaltFactory.createSDocumentGraph());
+		mapper.setDocument(sDocument);
+		mapper.mapSDocument();
+		return sDocument;
+	}
+}
@@ -0,0 +1,99 @@
+/**
+ * Copyright 2009 Humboldt University of Berlin, INRIA.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.corpus_tools.peppermodules.tcfModules;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.corpus_tools.salt.SaltFactory;
+import org.corpus_tools.salt.common.SDocumentGraph;
+import org.corpus_tools.salt.common.SDominanceRelation;
+import org.corpus_tools.salt.common.SStructure;
+import org.corpus_tools.salt.common.SStructuredNode;
+import org.corpus_tools.salt.core.SNode;
+
+/**
+ * This class builds the tree of a &lt;tc:parse&gt; element. The constituents
+ * enclosing the current one are kept on a stack of nodes, so the parent of a
+ * constituent is known without looking up its id. The
+ * {@link SDominanceRelation}s are collected while the tree is read and added
+ * to the {@link SDocumentGraph} when the parse is complete. Since all nodes
+ * are known to be part of the graph at that time, the relations are added
+ * directly instead of using
+ * {@link SDocumentGraph#addNode(SNode, SNode, org.corpus_tools.salt.SALT_TYPE)}
+ * , which searches the nodes of the graph for source and target.
+ */
+class ConstituentTree {
+	/** the open constituents, the innermost one on top */
+	private SStructuredNode[] open;
+	/** the number of open constituents */
+	private int depth;
+	/** the relations of the current parse, which are not added yet */
+	private final List<SDominanceRelation> relations;
+
+	public ConstituentTree() {
+		open = new SStructuredNode[16];
+		depth = 0;
+		relations = new ArrayList<SDominanceRelation>();
+	}
+
+	/** This method starts a new parse. */
+	public void startParse() {
+		Arrays.fill(open, 0, depth, null);
+		depth = 0;
+		relations.clear();
+	}
+
+	/**
+	 * This method opens a constituent. Unless it is the root, it is dominated
+	 * by the innermost open constituent. Constituents covering tokens are
+	 * leaves, so no constituent nested in them is dominated by them.
+	 *
+	 * @param sNode
+	 *            the {@link SStructure}, span or token of the constituent,
+	 *            which has to be part of the graph, when the parse ends
+	 */
+	public void open(SStructuredNode sNode) {
+		if (depth > 0 && open[depth - 1] instanceof SStructure) {
+			SDominanceRelation dominance = SaltFactory.createSDominanceRelation();
+			dominance.setSource((SStructure) open[depth - 1]);
+			dominance.setTarget(sNode);
+			relations.add(dominance);
+		}
+		if (depth == open.length) {
+			open = Arrays.copyOf(open, depth * 2);
+		}
+		open[depth++] = sNode;
+	}
+
+	/** This method closes the innermost open constituent. */
+	public void close() {
+		open[--depth] = null;
+	}
+
+	/**
+	 * This method adds the relations of the current parse to the given graph.
+	 */
+	public void endParse(SDocumentGraph graph) {
+		for (SDominanceRelation dominance : relations) {
+			graph.addRelation(dominance);
+		}
+		relations.clear();
+	}
+}
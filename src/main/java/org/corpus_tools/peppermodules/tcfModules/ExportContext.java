@@ -0,0 +1,309 @@
+/**
+ * Copyright 2009 Humboldt University of Berlin, INRIA.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.corpus_tools.peppermodules.tcfModules;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.corpus_tools.salt.common.SDocumentGraph;
+import org.corpus_tools.salt.common.SPointingRelation;
+import org.corpus_tools.salt.common.STextualDS;
+import org.corpus_tools.salt.common.STextualRelation;
+import org.corpus_tools.salt.common.SToken;
+import org.corpus_tools.salt.core.SAnnotation;
+import org.corpus_tools.salt.core.SNode;
+import org.corpus_tools.salt.core.SRelation;
+
+/**
+ * This class contains everything {@link TCFMapperExport} needs to know about
+ * the tokens of one {@link STextualDS} of a document. The tokens of all texts
+ * are partitioned and sorted once, and in the same pass their offsets, TCF
+ * ids and the annotations exported per token are determined, so that all
+ * layers can reuse them. The texts of the tokens are not extracted, they are
+ * written from a single copy of the primary text. Nodes are indexed by the
+ * qualified names of their annotations, so a layer only visits the nodes
+ * carrying the annotation it exports. This index is shared by the contexts of
+ * all texts of a document.
+ */
+class ExportContext {
+	/** the line separator of the system */
+	private static final String LINE_SEPARATOR = System.getProperty("line.separator");
+	/** orders textual relations by the start of the token */
+	private static final Comparator<STextualRelation> START_ORDER = new Comparator<STextualRelation>() {
+		@Override
+		public int compare(STextualRelation rel1, STextualRelation rel2) {
+			return Integer.compare(rel1.getStart(), rel2.getStart());
+		}
+	};
+	/** the tokens sorted by text */
+	private final List<SToken> sTokens;
+	/** the characters of the primary text */
+	private final char[] text;
+	/** the start offsets of the tokens in the order of {@link #sTokens} */
+	private final int[] starts;
+	/** the end offsets of the tokens in the order of {@link #sTokens} */
+	private final int[] ends;
+	/**
+	 * the TCF ids of the tokens in the order of {@link #sTokens}, it is null
+	 * for empty tokens, which are not exported
+	 */
+	private final String[] ids;
+	/** maps the tokens to their positions in {@link #sTokens} */
+	private final Map<SToken, Integer> positions;
+	/** the POS annotations in the order of {@link #sTokens} */
+	private final SAnnotation[] posAnnotations;
+	/** the lemma annotations in the order of {@link #sTokens} */
+	private final SAnnotation[] lemmaAnnotations;
+	/** maps the qualified names of annotations to the annotated nodes */
+	private final Map<String, List<SNode>> nodesByAnnotation;
+	/**
+	 * the dependencies between tokens whose dependent is part of the text, in
+	 * the order of the graph
+	 */
+	private final List<SPointingRelation> dependencies;
+
+	/**
+	 * This method creates the contexts of all texts of the given graph.
+	 * 
+	 * @param sDocGraph
+	 *            the graph to be exported
+	 * @param emptyTokensAllowed
+	 *            whether tokens without text are exported
+	 * @param qNamePOS
+	 *            the qualified name of POS annotations
+	 * @param qNameLemma
+	 *            the qualified name of lemma annotations
+	 * @return the contexts in the order of the texts of the graph
+	 */
+	public static Map<STextualDS, ExportContext> partition(SDocumentGraph sDocGraph, boolean emptyTokensAllowed, String qNamePOS, String qNameLemma) {
+		Map<STextualDS, List<STextualRelation>> relationsByText = new LinkedHashMap<STextualDS, List<STextualRelation>>();
+		for (STextualDS sTextualDS : sDocGraph.getTextualDSs()) {
+			relationsByText.put(sTextualDS, new ArrayList<STextualRelation>());
+		}
+		for (STextualRelation sTextRel : sDocGraph.getTextualRelations()) {
+			List<STextualRelation> relations = relationsByText.get(sTextRel.getTarget());
+			if (relations != null) {
+				relations.add(sTextRel);
+			}
+		}
+		Map<String, List<SNode>> nodesByAnnotation = new HashMap<String, List<SNode>>();
+		for (SNode sNode : sDocGraph.getNodes()) {
+			for (SAnnotation sAnno : sNode.getAnnotations()) {
+				List<SNode> sNodes = nodesByAnnotation.get(sAnno.getQName());
+				if (sNodes == null) {
+					sNodes = new ArrayList<SNode>();
+					nodesByAnnotation.put(sAnno.getQName(), sNodes);
+				}
+				sNodes.add(sNode);
+			}
+		}
+		Map<STextualDS, List<SPointingRelation>> dependenciesByText = new HashMap<STextualDS, List<SPointingRelation>>();
+		for (STextualDS sTextualDS : relationsByText.keySet()) {
+			dependenciesByText.put(sTextualDS, new ArrayList<SPointingRelation>());
+		}
+		for (SPointingRelation sPointingRel : sDocGraph.getPointingRelations()) {
+			if (TCFMapperImport.STYPE_DEPENDENCY.equals(sPointingRel.getType()) && sPointingRel.getSource() instanceof SToken && sPointingRel.getTarget() instanceof SToken) {
+				/* a dependency belongs to the texts of its dependent */
+				for (SRelation<?, ?> sRel : sPointingRel.getTarget().getOutRelations()) {
+					if (sRel instanceof STextualRelation) {
+						List<SPointingRelation> dependencies = dependenciesByText.get(sRel.getTarget());
+						if (dependencies != null && (dependencies.isEmpty() || dependencies.get(dependencies.size() - 1) != sPointingRel)) {
+							dependencies.add(sPointingRel);
+						}
+					}
+				}
+			}
+		}
+		Map<STextualDS, ExportContext> contexts = new LinkedHashMap<STextualDS, ExportContext>();
+		for (Map.Entry<STextualDS, List<STextualRelation>> entry : relationsByText.entrySet()) {
+			Collections.sort(entry.getValue(), START_ORDER);
+			contexts.put(entry.getKey(), new ExportContext(entry.getKey(), entry.getValue(), nodesByAnnotation, dependenciesByText.get(entry.getKey()), emptyTokensAllowed, qNamePOS, qNameLemma));
+		}
+		return contexts;
+	}
+
+	/**
+	 * @param sTextualDS
+	 *            the primary text
+	 * @param sTextRels
+	 *            the textual relations of the tokens of the text in the order
+	 *            of the text
+	 */
+	private ExportContext(STextualDS sTextualDS, List<STextualRelation> sTextRels, Map<String, List<SNode>> nodesByAnnotation, List<SPointingRelation> dependencies, boolean emptyTokensAllowed, String qNamePOS, String qNameLemma) {
+		int size = sTextRels.size();
+		sTokens = new ArrayList<SToken>(size);
+		text = sTextualDS.getText() == null ? new char[0] : sTextualDS.getText().toCharArray();
+		starts = new int[size];
+		ends = new int[size];
+		ids = new String[size];
+		positions = new HashMap<SToken, Integer>();
+		posAnnotations = new SAnnotation[size];
+		lemmaAnnotations = new SAnnotation[size];
+		this.nodesByAnnotation = nodesByAnnotation;
+		this.dependencies = dependencies;
+		int i = 0;
+		for (int position = 0; position < size; position++) {
+			STextualRelation sTextRel = sTextRels.get(position);
+			SToken sTok = sTextRel.getSource();
+			sTokens.add(sTok);
+			starts[position] = sTextRel.getStart();
+			ends[position] = sTextRel.getEnd();
+			if (emptyTokensAllowed || !isWhitespace(starts[position], ends[position])) {
+				i++;
+				ids[position] = "t_" + i;
+			}
+			positions.put(sTok, position);
+			posAnnotations[position] = sTok.getAnnotation(qNamePOS);
+			lemmaAnnotations[position] = sTok.getAnnotation(qNameLemma);
+		}
+	}
+
+	/**
+	 * returns the nodes having an annotation with the given qualified name in
+	 * the order of the graph
+	 */
+	public List<SNode> getNodes(String qName) {
+		List<SNode> sNodes = nodesByAnnotation.get(qName);
+		return sNodes == null ? Collections.<SNode> emptyList() : sNodes;
+	}
+
+	/**
+	 * returns the dependencies between tokens whose dependent is part of the
+	 * text in the order of the graph
+	 */
+	public List<SPointingRelation> getDependencies() {
+		return dependencies;
+	}
+
+	/** returns the number of tokens */
+	public int size() {
+		return sTokens.size();
+	}
+
+	/** returns the characters of the primary text */
+	public char[] getText() {
+		return text;
+	}
+
+	/** returns the start offset of the token at the given position */
+	public int getStart(int position) {
+		return starts[position];
+	}
+
+	/** returns the end offset of the token at the given position */
+	public int getEnd(int position) {
+		return ends[position];
+	}
+
+	/**
+	 * This method checks whether the primary text between the given offsets
+	 * only consists of spaces, tabs and line separators.
+	 */
+	private boolean isWhitespace(int start, int end) {
+		for (int i = start; i < end; i++) {
+			char c = text[i];
+			if (c != ' ' && c != '\t' && LINE_SEPARATOR.indexOf(c) < 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * returns the TCF id of the token at the given position or null, if the
+	 * token is empty
+	 */
+	public String getId(int position) {
+		return ids[position];
+	}
+
+	/**
+	 * returns the position of the given token in the order of the text or -1,
+	 * if the token is not part of the text
+	 */
+	public int getPosition(SToken sTok) {
+		Integer position = positions.get(sTok);
+		return position == null ? -1 : position;
+	}
+
+	/**
+	 * This method returns the positions of the given tokens in ascending
+	 * order. Tokens, which are not part of the text, are left out. Usually
+	 * the tokens are already given in the order of the text, so they only
+	 * need to be sorted, if they are not.
+	 */
+	public int[] getPositions(List<SToken> sTokens) {
+		int[] tokenPositions = new int[sTokens.size()];
+		int size = 0;
+		boolean sorted = true;
+		for (SToken sTok : sTokens) {
+			int position = getPosition(sTok);
+			if (position >= 0) {
+				sorted &= size == 0 || tokenPositions[size - 1] < position;
+				tokenPositions[size++] = position;
+			}
+		}
+		if (size < tokenPositions.length) {
+			tokenPositions = Arrays.copyOf(tokenPositions, size);
+		}
+		if (!sorted) {
+			Arrays.sort(tokenPositions);
+		}
+		return tokenPositions;
+	}
+
+	/**
+	 * This method appends the TCF ids of the tokens at the given positions to
+	 * the given builder. The ids are separated by spaces, empty tokens are left
+	 * out.
+	 */
+	public StringBuilder appendIds(StringBuilder builder, int[] tokenPositions) {
+		boolean first = true;
+		for (int position : tokenPositions) {
+			String id = ids[position];
+			if (id != null) {
+				if (!first) {
+					builder.append(' ');
+				}
+				builder.append(id);
+				first = false;
+			}
+		}
+		return builder;
+	}
+
+	/**
+	 * returns the POS annotation of the token at the given position or null
+	 */
+	public SAnnotation getPOSAnnotation(int position) {
+		return posAnnotations[position];
+	}
+
+	/**
+	 * returns the lemma annotation of the token at the given position or null
+	 */
+	public SAnnotation getLemmaAnnotation(int position) {
+		return lemmaAnnotations[position];
+	}
+}
@@ -0,0 +1,139 @@
+/**
+ * Copyright 2009 Humboldt University of Berlin, INRIA.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.corpus_tools.peppermodules.tcfModules;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.corpus_tools.salt.common.SPointingRelation;
+import org.corpus_tools.salt.core.SNode;
+
+/**
+ * This class collects the references of an entity of the TCF references
+ * layer, until the entity is complete and its chain can be resolved. It also
+ * remembers all pairs of source and target, which are already connected by a
+ * {@link SPointingRelation} of the type "reference", so that no relation is
+ * created twice and no relations of the source have to be searched.
+ */
+class ReferenceChain {
+	/** the references of the current entity in the order of their occurrence */
+	private final List<Mention> mentions;
+	/** the pairs of source and target already connected by a reference */
+	private final Set<Link> links;
+
+	public ReferenceChain() {
+		mentions = new ArrayList<Mention>();
+		links = new HashSet<Link>();
+	}
+
+	/** This method starts collecting the references of a new entity. */
+	public void startEntity() {
+		mentions.clear();
+	}
+
+	/**
+	 * This method adds a reference, which refers to another reference of the
+	 * entity.
+	 *
+	 * @param source
+	 *            the node of the reference
+	 * @param target
+	 *            the TCF id of the referenced reference
+	 * @param rel
+	 *            the type of the relation
+	 */
+	public void addMention(SNode source, String target, String rel) {
+		mentions.add(new Mention(source, target, rel));
+	}
+
+	/**
+	 * This method adds the antecedent, which is referred to by the mentions of
+	 * the entity, in case their targets are not given by ids.
+	 */
+	public void addAntecedent(SNode antecedent) {
+		mentions.add(new Mention(antecedent, null, null));
+	}
+
+	/** returns the number of references of the current entity */
+	public int size() {
+		return mentions.size();
+	}
+
+	/** returns the reference of the current entity at the given position */
+	public Mention get(int position) {
+		return mentions.get(position);
+	}
+
+	/**
+	 * This method registers a reference from source to target.
+	 *
+	 * @return true, if source and target are not connected yet and the
+	 *         relation has to be created
+	 */
+	public boolean link(SNode source, SNode target) {
+		return links.add(new Link(source, target));
+	}
+
+	/** a reference of an entity */
+	static final class Mention {
+		/** the node of the reference */
+		final SNode source;
+		/** the TCF id of the referenced reference */
+		final String target;
+		/** the type of the relation or null, if this is the antecedent */
+		final String rel;
+
+		private Mention(SNode source, String target, String rel) {
+			this.source = source;
+			this.target = target;
+			this.rel = rel;
+		}
+
+		/** returns true, if this reference is the antecedent of the entity */
+		boolean isAntecedent() {
+			return rel == null;
+		}
+	}
+
+	/** a pair of nodes connected by a reference, compared by identity */
+	private static final class Link {
+		private final SNode source;
+		private final SNode target;
+
+		private Link(SNode source, SNode target) {
+			this.source = source;
+			this.target = target;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Link)) {
+				return false;
+			}
+			Link other = (Link) obj;
+			return source == other.source && target == other.target;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * System.identityHashCode(source) + System.identityHashCode(target);
+		}
+	}
+}
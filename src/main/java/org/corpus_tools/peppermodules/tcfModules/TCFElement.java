@@ -0,0 +1,188 @@
+/**
+ * Copyright 2009 Humboldt University of Berlin, INRIA.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.corpus_tools.peppermodules.tcfModules;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This enum contains all xml-elements of {@link TCFDictionary} the
+ * {@link TCFMapperImport} reacts on. The lookup table is built once, so that
+ * resolving the element of a SAX event costs a single hash lookup instead of
+ * comparing the element's name against every known tag. Elements forming a
+ * layer of the text corpus are marked as such.
+ */
+enum TCFElement implements TCFDictionary {
+	/* text corpus */
+	TEXTCORPUS(TAG_TC_TEXTCORPUS),
+	TEXT(TAG_TC_TEXT, true),
+	TOKENS(TAG_TC_TOKENS, true),
+	TOKEN(TAG_TC_TOKEN),
+	SENTENCES(TAG_TC_SENTENCES, true),
+	SENTENCE(TAG_TC_SENTENCE),
+	/** 'tag' is used in tc:POStags, tc:morphology and in the meta data */
+	TAG(TAG_TC_TAG),
+	POSTAGS(TAG_TC_POSTAGS, true),
+	LEMMAS(TAG_TC_LEMMAS, true),
+	LEMMA(TAG_TC_LEMMA),
+	DEPPARSING(TAG_TC_DEPPARSING, true),
+	PARSE(TAG_TC_PARSE),
+	DEPENDENCY(TAG_TC_DEPENDENCY),
+	PARSING(TAG_TC_PARSING, true),
+	CONSTITUENT(TAG_TC_CONSTITUENT),
+	MORPHOLOGY(TAG_TC_MORPHOLOGY, true),
+	ANALYSIS(TAG_TC_ANALYSIS),
+	F(TAG_TC_F),
+	SEGMENT(TAG_TC_SEGMENT),
+	REFERENCES(TAG_TC_REFERENCES, true),
+	/** 'entity' is used in tc:references and tc:namedEntities */
+	ENTITY(TAG_TC_ENTITY),
+	REFERENCE(TAG_TC_REFERENCE),
+	NAMEDENTITIES(TAG_TC_NAMEDENTITIES, true),
+	PHONETICS(TAG_TC_PHONETICS, true),
+	PRON(TAG_TC_PRON),
+	ORTHOGRAPHY(TAG_TC_ORTHOGRAPHY, true),
+	CORRECTION(TAG_TC_CORRECTION),
+	GEO(TAG_TC_GEO, true),
+	SRC(TAG_TC_SRC),
+	GPOINT(TAG_TC_GPOINT),
+	SYNONYMY(TAG_TC_SYNONYMY, true),
+	ANTONYMY(TAG_TC_ANTONYMY, true),
+	HYPONYMY(TAG_TC_HYPONYMY, true),
+	HYPERONYMY(TAG_TC_HYPERONYMY, true),
+	ORTHFORM(TAG_TC_ORTHFORM),
+	WSD(TAG_TC_WSD, true),
+	WS(TAG_TC_WS),
+	WORDSPLITTINGS(TAG_TC_WORDSPLITTINGS, true),
+	SPLIT(TAG_TC_SPLIT),
+	DISCOURSECONNECTIVES(TAG_TC_DISCOURSECONNECTIVES, true),
+	CONNECTIVE(TAG_TC_CONNECTIVE),
+	TEXTSTRUCTURE(TAG_TC_TEXTSTRUCTURE, true),
+	TEXTSPAN(TAG_TC_TEXTSPAN),
+	/* meta data */
+	METADATA(TAG_MD_METADATA),
+	CMD(TAG_CMD),
+	MDCREATOR(TAG_MDCREATOR),
+	MDCREATIONDATE(TAG_MDCREATIONDATE),
+	MDSELFLINK(TAG_MDSELFLINK),
+	MDPROFILE(TAG_MDPROFILE),
+	MDCOLLECTIONDISPLAYNAME(TAG_MDCOLLECTIONDISPLAYNAME),
+	RESOURCEPROXYLIST(TAG_RESOURCEPROXYLIST),
+	RESOURCEPROXY(TAG_RESOURCEPROXY),
+	RESOURCETYPE(TAG_RESOURCETYPE),
+	RESOURCEREF(TAG_RESOURCEREF),
+	JOURNALFILEPROXYLIST(TAG_JOURNALFILEPROXYLIST),
+	JOURNALFILEPROXY(TAG_JOURNALFILEPROXY),
+	JOURNALFILEREF(TAG_JOURNALFILEREF),
+	RESOURCERELATIONLIST(TAG_RESOURCERELATIONLIST),
+	RESOURCERELATION(TAG_RESOURCERELATION),
+	RELATIONTYPE(TAG_RELATIONTYPE),
+	RES1(TAG_RES1),
+	RES2(TAG_RES2),
+	ISPARTOFLIST(TAG_ISPARTOFLIST),
+	ISPARTOF(TAG_ISPARTOF),
+	GENERALINFO(TAG_GENERALINFO),
+	RESOURCENAME(TAG_RESOURCENAME),
+	RESOURCETITLE(TAG_RESOURCETITLE),
+	RESOURCECLASS(TAG_RESOURCECLASS),
+	DESCRIPTIONS(TAG_DESCRIPTIONS),
+	DESCRIPTION(TAG_DESCRIPTION),
+	VERSION(TAG_VERSION),
+	LIFECYCLESTATUS(TAG_LIFECYCLESTATUS),
+	STARTYEAR(TAG_STARTYEAR),
+	COMPLETIONYEAR(TAG_COMPLETIONYEAR),
+	PUBLICATIONDATE(TAG_PUBLICATIONDATE),
+	LASTUPDATE(TAG_LASTUPDATE),
+	TIMECOVERAGE(TAG_TIMECOVERAGE),
+	LEGALOWNER(TAG_LEGALOWNER),
+	GENRE(TAG_GENRE),
+	LOCATION(TAG_LOCATION),
+	ADDRESS(TAG_ADDRESS),
+	REGION(TAG_REGION),
+	CONTINENTNAME(TAG_CONTINENTNAME),
+	COUNTRY(TAG_COUNTRY),
+	COUNTRYNAME(TAG_COUNTRYNAME),
+	COUNTRYCODING(TAG_COUNTRYCODING),
+	TAGS(TAG_TAGS),
+	TOOLCHAIN(TAG_TOOLCHAIN),
+	TOOLINCHAIN(TAG_TOOLINCHAIN),
+	PID(TAG_PID),
+	PARAMETER(TAG_PARAMETER);
+
+	/** maps the local name of an xml-element to its {@link TCFElement} */
+	private static final Map<String, TCFElement> ELEMENTS = new HashMap<String, TCFElement>();
+
+	static {
+		for (TCFElement element : values()) {
+			ELEMENTS.put(element.getName(), element);
+		}
+	}
+
+	/** the local name of the xml-element */
+	private final String name;
+	/** is true, if the xml-element is a layer of the text corpus */
+	private final boolean layer;
+
+	private TCFElement(String name) {
+		this(name, false);
+	}
+
+	private TCFElement(String name, boolean layer) {
+		this.name = name;
+		this.layer = layer;
+	}
+
+	/** returns the local name of the xml-element */
+	public String getName() {
+		return name;
+	}
+
+	/** returns true, if the xml-element is a layer of the text corpus */
+	public boolean isLayer() {
+		return layer;
+	}
+
+	/**
+	 * This method returns the {@link TCFElement} for the given local name.
+	 *
+	 * @param localName
+	 *            local name of the xml-element without namespace prefix
+	 * @return the element or null, if the element is not handled by the
+	 *         importer
+	 */
+	public static TCFElement forName(String localName) {
+		return ELEMENTS.get(localName);
+	}
+
+	/**
+	 * This method returns the layer with the given name ignoring the case,
+	 * e.g. "POStags" and "postags" both refer to {@link #POSTAGS}.
+	 *
+	 * @param layerName
+	 *            local name of the layer's xml-element
+	 * @return the layer or null, if there is no layer with this name
+	 */
+	public static TCFElement forLayerName(String layerName) {
+		for (TCFElement element : values()) {
+			if (element.isLayer() && element.getName().equalsIgnoreCase(layerName)) {
+				return element;
+			}
+		}
+		return null;
+	}
+}
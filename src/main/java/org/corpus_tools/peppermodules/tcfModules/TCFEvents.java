@@ -0,0 +1,104 @@
+/**
+ * Copyright 2009 Humboldt University of Berlin, INRIA.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.corpus_tools.peppermodules.tcfModules;
+
+/**
+ * This class emits the JDK Flight Recorder events of {@link TCFMapperImport}
+ * and {@link TCFMapperExport}. The events are defined in
+ * {@link TCFFlightRecorder}, which is only touched, if the jdk.jfr API is
+ * available, e.g. it is missing on JVMs older than 8u262 or when the OSGi
+ * framework does not export it. Duration events are passed around as plain
+ * objects, which are null while the event is disabled, so a disabled event
+ * costs a null check.
+ */
+final class TCFEvents {
+	/** the operation of events emitted by {@link TCFMapperImport} */
+	static final String IMPORT = "import";
+	/** the operation of events emitted by {@link TCFMapperExport} */
+	static final String EXPORT = "export";
+	/** is true, if the jdk.jfr API can be loaded */
+	private static final boolean AVAILABLE = isAvailable();
+
+	private TCFEvents() {
+	}
+
+	private static boolean isAvailable() {
+		try {
+			Class.forName("jdk.jfr.Event", false, TCFEvents.class.getClassLoader());
+			return true;
+		} catch (ClassNotFoundException | LinkageError e) {
+			return false;
+		}
+	}
+
+	/**
+	 * @return the started event of a document or null, if the event is
+	 *         disabled
+	 */
+	static Object beginDocument() {
+		return AVAILABLE ? TCFFlightRecorder.beginDocument() : null;
+	}
+
+	/** This method ends and commits an event started by {@link #beginDocument()}. */
+	static void endDocument(Object event, String documentId, String operation, long bytes, long nodes, long relations) {
+		if (event != null) {
+			TCFFlightRecorder.endDocument(event, documentId, operation, bytes, nodes, relations);
+		}
+	}
+
+	/** returns true, if the events of layers are enabled */
+	static boolean isLayerEnabled() {
+		return AVAILABLE && TCFFlightRecorder.isLayerEnabled();
+	}
+
+	/**
+	 * @return the started event of a layer or null, if the event is disabled
+	 */
+	static Object beginLayer() {
+		return AVAILABLE ? TCFFlightRecorder.beginLayer() : null;
+	}
+
+	/** This method ends and commits an event started by {@link #beginLayer()}. */
+	static void endLayer(Object event, String documentId, String operation, String layer, long bytes, long elements) {
+		if (event != null) {
+			TCFFlightRecorder.endLayer(event, documentId, operation, layer, bytes, elements);
+		}
+	}
+
+	/** This method emits the event of a token, which could not be aligned. */
+	static void skippedToken(String documentId, String tokenId, CharSequence token, int position) {
+		if (AVAILABLE) {
+			TCFFlightRecorder.skippedToken(documentId, tokenId, token, position);
+		}
+	}
+
+	/**
+	 * @return the started event of a file write or null, if the event is
+	 *         disabled
+	 */
+	static Object beginFileWrite() {
+		return AVAILABLE ? TCFFlightRecorder.beginFileWrite() : null;
+	}
+
+	/** This method ends and commits an event started by {@link #beginFileWrite()}. */
+	static void endFileWrite(Object event, String documentId, String path, long bytes, long elements) {
+		if (event != null) {
+			TCFFlightRecorder.endFileWrite(event, documentId, path, bytes, elements);
+		}
+	}
+}
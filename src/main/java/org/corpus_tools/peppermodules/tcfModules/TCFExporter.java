@@ -17,9 +17,14 @@
  */
 package org.corpus_tools.peppermodules.tcfModules;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
 import org.corpus_tools.pepper.impl.PepperExporterImpl;
 import org.corpus_tools.pepper.modules.PepperExporter;
 import org.corpus_tools.pepper.modules.PepperMapper;
+import org.corpus_tools.pepper.modules.exceptions.PepperModuleException;
 import org.corpus_tools.salt.common.SDocument;
 import org.corpus_tools.salt.graph.Identifier;
 import org.eclipse.emf.common.util.URI;
@@ -27,6 +32,14 @@ import org.osgi.service.component.annotations.Component;
 
 @Component(name = "TCFExporterComponent", factory = "PepperExporterComponentFactory")
 public class TCFExporter extends PepperExporterImpl implements PepperExporter {
+	/** provides writers and buffers to all mappers of this exporter */
+	private final TCFWriterFactory writerFactory = new TCFWriterFactory();
+	/**
+	 * writes the texts of all mappers of this exporter, it is created with the
+	 * first document containing multiple texts and shut down in {@link #end()}
+	 */
+	private ExecutorService executor = null;
+
 	public TCFExporter() {
 		super();
 		setExportMode(EXPORT_MODE.DOCUMENTS_IN_FILES);
@@ -41,9 +54,41 @@ public class TCFExporter extends PepperExporterImpl implements PepperExporter {
 	@Override
 	public PepperMapper createPepperMapper(Identifier sElementId) {
 		TCFMapperExport mapper = new TCFMapperExport();
+		mapper.setWriterFactory(writerFactory);
+		mapper.setExecutor(getExecutor());
 		if (sElementId.getIdentifiableElement() instanceof SDocument) {
 			mapper.setResourceURI(getIdentifier2ResourceTable().get(sElementId));
 		}
 		return mapper;
 	}
+
+	/**
+	 * returns the executor shared by all mappers or null, if the texts are
+	 * exported one after another
+	 */
+	private synchronized ExecutorService getExecutor() {
+		int threads = ((TCFExporterProperties) getProperties()).getThreads();
+		if (executor == null && threads > 1) {
+			executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable runnable) {
+					Thread thread = new Thread(runnable, "TCFExporter");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+		return executor;
+	}
+
+	@Override
+	public void end() throws PepperModuleException {
+		synchronized (this) {
+			if (executor != null) {
+				executor.shutdown();
+				executor = null;
+			}
+		}
+		super.end();
+	}
 }
@@ -62,6 +62,16 @@ public class TCFExporterProperties extends PepperModuleProperties {
 	public static final String PROP_LEMMA_QNAME = "lemma.qname";
 	/** property description */
 	public static final String PROP_NE_QNAME = "";
+	/**
+	 * this property says whether the TCF document is written directly to the
+	 * file instead of being built in memory first
+	 */
+	public static final String PROP_STREAMING = "streaming";
+	/**
+	 * this property says how many texts of a document are exported at the
+	 * same time
+	 */
+	public static final String PROP_THREADS = "threads";
 
 	public TCFExporterProperties() {
 		addProperty(new PepperModuleProperty<String>(PROP_TEXTSTRUCTURE_LINE_QNAME, String.class, "This property says which annotation key is used for spans over tokens that mark a line of text.", "textstructure", false));
@@ -73,6 +83,8 @@ public class TCFExporterProperties extends PepperModuleProperties {
 		addProperty(new PepperModuleProperty<String>(PROP_SENTENCE_VALUE, String.class, "This property says which annotation key is used for POS annotations.", "sentence", false));
 		addProperty(new PepperModuleProperty<String>(PROP_POS_QNAME, String.class, "This property says which annotation key is used for POS annotations.", "POS", false));
 		addProperty(new PepperModuleProperty<String>(PROP_LEMMA_QNAME, String.class, "This property says which annotation annotation key is used for lemma annotations.", "LEMMA", false));
+		addProperty(new PepperModuleProperty<Boolean>(PROP_STREAMING, Boolean.class, "This property says whether the TCF document is written directly to the file as UTF-8 instead of being built in memory first. The file is moved into place when the document is complete.", false, false));
+		addProperty(new PepperModuleProperty<Integer>(PROP_THREADS, Integer.class, "This property says how many texts of a document containing multiple texts are exported at the same time, each to a file of its own.", 1, false));
 	}
 
 	public String getTextstructureLineName() {
@@ -115,4 +127,22 @@ public class TCFExporterProperties extends PepperModuleProperties {
 	public String getLemmaQName() {
 		return getProperty(PROP_LEMMA_QNAME).getValue().toString();
 	}
+
+	public Boolean isStreaming() {
+		boolean retVal = false;
+		String prop = getProperty(PROP_STREAMING).getValue().toString();
+		if ((prop != null) && (!prop.isEmpty())) {
+			retVal = Boolean.valueOf(prop);
+		}
+		return retVal;
+	}
+
+	public int getThreads() {
+		int retVal = 1;
+		Object prop = getProperty(PROP_THREADS).getValue();
+		if (prop != null && !prop.toString().isEmpty()) {
+			retVal = Integer.valueOf(prop.toString());
+		}
+		return retVal;
+	}
 }
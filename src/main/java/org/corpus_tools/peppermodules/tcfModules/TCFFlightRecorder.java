@@ -0,0 +1,194 @@
+/**
+ * Copyright 2009 Humboldt University of Berlin, INRIA.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.corpus_tools.peppermodules.tcfModules;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * This class contains the JDK Flight Recorder events of the TCF modules. It
+ * is only loaded by {@link TCFEvents} after it made sure, that the jdk.jfr API
+ * is available, so the modules still run on JVMs without it. Duration events
+ * are only allocated while the event is enabled in the running recording,
+ * otherwise the begin methods return null.
+ */
+final class TCFFlightRecorder {
+	private static final String PREFIX = "org.corpus_tools.peppermodules.tcf.";
+
+	@Name(PREFIX + "Document")
+	@Label("TCF Document")
+	@Category({ "Pepper", "TCF" })
+	@Description("Import or export of a single document")
+	static class DocumentEvent extends Event {
+		@Label("Document")
+		String documentId;
+		@Label("Operation")
+		String operation;
+		@Label("Bytes")
+		@Description("Size of the TCF files read or written")
+		@DataAmount
+		long bytes;
+		@Label("Nodes")
+		@Description("Number of nodes in the document graph")
+		long nodes;
+		@Label("Relations")
+		@Description("Number of relations in the document graph")
+		long relations;
+	}
+
+	@Name(PREFIX + "Layer")
+	@Label("TCF Layer")
+	@Category({ "Pepper", "TCF" })
+	@Description("Reading or writing of a single layer of a TCF document")
+	static class LayerEvent extends Event {
+		@Label("Document")
+		String documentId;
+		@Label("Operation")
+		String operation;
+		@Label("Layer")
+		String layer;
+		@Label("Bytes")
+		@Description("Bytes written for the layer, they are not recorded for the import")
+		@DataAmount
+		long bytes;
+		@Label("Elements")
+		@Description("Number of xml-elements inside the layer")
+		long elements;
+	}
+
+	@Name(PREFIX + "SkippedToken")
+	@Label("TCF Skipped Token")
+	@Category({ "Pepper", "TCF" })
+	@Description("Token, which could not be aligned with the primary text")
+	static class SkippedTokenEvent extends Event {
+		@Label("Document")
+		String documentId;
+		@Label("Token ID")
+		String tokenId;
+		@Label("Token")
+		String token;
+		@Label("Position")
+		@Description("Offset in the primary text the token was searched at")
+		int position;
+	}
+
+	@Name(PREFIX + "FileWrite")
+	@Label("TCF File Write")
+	@Category({ "Pepper", "TCF" })
+	@Description("Writing of a TCF file")
+	static class FileWriteEvent extends Event {
+		@Label("Document")
+		String documentId;
+		@Label("Path")
+		String path;
+		@Label("Bytes")
+		@DataAmount
+		long bytes;
+		@Label("Elements")
+		@Description("Number of xml-elements written, they are only counted while layer events are enabled")
+		long elements;
+	}
+
+	private TCFFlightRecorder() {
+	}
+
+	/** returns true, if the layer events are enabled */
+	static boolean isLayerEnabled() {
+		return new LayerEvent().isEnabled();
+	}
+
+	static Object beginDocument() {
+		DocumentEvent event = new DocumentEvent();
+		if (!event.isEnabled()) {
+			return null;
+		}
+		event.begin();
+		return event;
+	}
+
+	static void endDocument(Object event, String documentId, String operation, long bytes, long nodes, long relations) {
+		DocumentEvent documentEvent = (DocumentEvent) event;
+		documentEvent.end();
+		if (documentEvent.shouldCommit()) {
+			documentEvent.documentId = documentId;
+			documentEvent.operation = operation;
+			documentEvent.bytes = bytes;
+			documentEvent.nodes = nodes;
+			documentEvent.relations = relations;
+			documentEvent.commit();
+		}
+	}
+
+	static Object beginLayer() {
+		LayerEvent event = new LayerEvent();
+		if (!event.isEnabled()) {
+			return null;
+		}
+		event.begin();
+		return event;
+	}
+
+	static void endLayer(Object event, String documentId, String operation, String layer, long bytes, long elements) {
+		LayerEvent layerEvent = (LayerEvent) event;
+		layerEvent.end();
+		if (layerEvent.shouldCommit()) {
+			layerEvent.documentId = documentId;
+			layerEvent.operation = operation;
+			layerEvent.layer = layer;
+			layerEvent.bytes = bytes;
+			layerEvent.elements = elements;
+			layerEvent.commit();
+		}
+	}
+
+	static void skippedToken(String documentId, String tokenId, CharSequence token, int position) {
+		SkippedTokenEvent event = new SkippedTokenEvent();
+		if (event.shouldCommit()) {
+			event.documentId = documentId;
+			event.tokenId = tokenId;
+			event.token = token.toString();
+			event.position = position;
+			event.commit();
+		}
+	}
+
+	static Object beginFileWrite() {
+		FileWriteEvent event = new FileWriteEvent();
+		if (!event.isEnabled()) {
+			return null;
+		}
+		event.begin();
+		return event;
+	}
+
+	static void endFileWrite(Object event, String documentId, String path, long bytes, long elements) {
+		FileWriteEvent fileWriteEvent = (FileWriteEvent) event;
+		fileWriteEvent.end();
+		if (fileWriteEvent.shouldCommit()) {
+			fileWriteEvent.documentId = documentId;
+			fileWriteEvent.path = path;
+			fileWriteEvent.bytes = bytes;
+			fileWriteEvent.elements = elements;
+			fileWriteEvent.commit();
+		}
+	}
+}
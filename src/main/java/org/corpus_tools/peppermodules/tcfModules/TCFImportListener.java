@@ -0,0 +1,39 @@
+/**
+ * Copyright 2009 Humboldt University of Berlin, INRIA.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.corpus_tools.peppermodules.tcfModules;
+
+import org.corpus_tools.salt.common.SDocument;
+
+/**
+ * A listener, which is notified by {@link TCFMapperImport} each time a TCF
+ * document was imported. It receives the {@link TCFImportStatistics} of the
+ * document, which tell e.g. which layer of a slow document took the most time.
+ * Listeners are registered at the {@link TCFImporter} and are called from the
+ * threads mapping the documents, so they have to be thread-safe.
+ */
+public interface TCFImportListener {
+	/**
+	 * This method is called after the given document was imported.
+	 *
+	 * @param sDocument
+	 *            the imported document
+	 * @param statistics
+	 *            the counters collected while importing the document
+	 */
+	public void documentImported(SDocument sDocument, TCFImportStatistics statistics);
+}
@@ -0,0 +1,253 @@
+/**
+ * Copyright 2009 Humboldt University of Berlin, INRIA.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.corpus_tools.peppermodules.tcfModules;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.corpus_tools.salt.common.SDocument;
+import org.corpus_tools.salt.common.SDocumentGraph;
+import org.corpus_tools.salt.core.SNode;
+import org.corpus_tools.salt.core.SRelation;
+
+/**
+ * This class contains the counters {@link TCFMapperImport} collects while
+ * importing a single TCF document. For each layer, e.g. &lt;tc:tokens&gt; or
+ * &lt;md:MetaData&gt;, the wall time between its start and end element, the
+ * number of elements inside the layer and the number of Salt nodes, relations
+ * and annotations created for it are recorded. The layers are kept in the
+ * order of their occurrence in the document. Counting the annotations of a
+ * layer visits the whole graph, so they are only counted on demand.
+ */
+public class TCFImportStatistics {
+	/** namespace of the meta annotations created by {@link #annotate(SDocument)} */
+	public static final String NAMESPACE = "tcfStatistics";
+	/** separates the layer name from the counter in a meta annotation's name */
+	private static final String CLN = TCFMetaKeys.CLN;
+
+	/** the counters of a single layer */
+	public static class LayerStatistics {
+		private final String name;
+		private long time;
+		private int elementCount;
+		private int nodeCount;
+		private int relationCount;
+		private int annotationCount;
+
+		private LayerStatistics(String name) {
+			this.name = name;
+		}
+
+		/** returns the local name of the layer's xml-element */
+		public String getName() {
+			return name;
+		}
+
+		/** returns the wall time spent in the layer in nanoseconds */
+		public long getTime() {
+			return time;
+		}
+
+		/** returns the number of xml-elements inside the layer */
+		public int getElementCount() {
+			return elementCount;
+		}
+
+		/** returns the number of Salt nodes created for the layer */
+		public int getNodeCount() {
+			return nodeCount;
+		}
+
+		/** returns the number of Salt relations created for the layer */
+		public int getRelationCount() {
+			return relationCount;
+		}
+
+		/**
+		 * returns the number of annotations created for the layer or 0, if
+		 * annotations were not counted per layer
+		 */
+		public int getAnnotationCount() {
+			return annotationCount;
+		}
+	}
+
+	/** the counters of all layers read so far */
+	private final Map<String, LayerStatistics> layers;
+	/** the counters of the layer currently read or null */
+	private LayerStatistics current;
+	/** the time the current layer or the document started */
+	private long start;
+	/** the number of nodes in the graph when the current layer started */
+	private int nodesAtStart;
+	/** the number of relations in the graph when the current layer started */
+	private int relationsAtStart;
+	/** the number of annotations in the graph when the current layer started */
+	private int annotationsAtStart;
+	/** the number of elements of the current layer before it started */
+	private int elementsAtStart;
+	/** whether the annotations are counted per layer */
+	private final boolean layerAnnotations;
+	private long time;
+	private int nodeCount;
+	private int relationCount;
+	private int annotationCount;
+
+	/**
+	 * @param layerAnnotations
+	 *            whether the annotations created for each layer are counted
+	 */
+	TCFImportStatistics(boolean layerAnnotations) {
+		this.layerAnnotations = layerAnnotations;
+		layers = new LinkedHashMap<String, LayerStatistics>();
+		current = null;
+		start = System.nanoTime();
+	}
+
+	/**
+	 * This method is called with the start element of a layer. In case a
+	 * layer occurs several times, its counters are summed up.
+	 */
+	void startLayer(String name, SDocumentGraph graph) {
+		current = layers.get(name);
+		if (current == null) {
+			current = new LayerStatistics(name);
+			layers.put(name, current);
+		}
+		elementsAtStart = current.elementCount;
+		nodesAtStart = graph.getNodes().size();
+		relationsAtStart = graph.getRelations().size();
+		if (layerAnnotations) {
+			annotationsAtStart = countAnnotations(graph);
+		}
+		current.time -= System.nanoTime();
+	}
+
+	/** This method counts an element inside the current layer, if any. */
+	void countElement() {
+		if (current != null) {
+			current.elementCount++;
+		}
+	}
+
+	/**
+	 * This method is called with the end element of the current layer.
+	 * 
+	 * @return the number of elements inside this occurrence of the layer
+	 */
+	int endLayer(SDocumentGraph graph) {
+		if (current == null) {
+			return 0;
+		}
+		current.time += System.nanoTime();
+		current.nodeCount += graph.getNodes().size() - nodesAtStart;
+		current.relationCount += graph.getRelations().size() - relationsAtStart;
+		if (layerAnnotations) {
+			current.annotationCount += countAnnotations(graph) - annotationsAtStart;
+		}
+		int elements = current.elementCount - elementsAtStart;
+		current = null;
+		return elements;
+	}
+
+	/**
+	 * This method is called after the document was read. It stops the clock of
+	 * the document and counts the nodes, relations and annotations of the
+	 * resulting graph.
+	 */
+	void endDocument(SDocumentGraph graph) {
+		time = System.nanoTime() - start;
+		nodeCount = graph.getNodes().size();
+		relationCount = graph.getRelations().size();
+		annotationCount = countAnnotations(graph);
+	}
+
+	/** returns the number of annotations of the nodes and relations of the graph */
+	private static int countAnnotations(SDocumentGraph graph) {
+		int annotations = 0;
+		for (SNode sNode : graph.getNodes()) {
+			annotations += sNode.getAnnotations().size();
+		}
+		for (SRelation<?, ?> sRelation : graph.getRelations()) {
+			annotations += sRelation.getAnnotations().size();
+		}
+		return annotations;
+	}
+
+	/** returns the counters of all layers in the order of their occurrence */
+	public Collection<LayerStatistics> getLayers() {
+		return Collections.unmodifiableCollection(layers.values());
+	}
+
+	/**
+	 * @param name
+	 *            the local name of the layer's xml-element, e.g. "tokens"
+	 * @return the counters of the layer or null, if the document does not
+	 *         contain the layer
+	 */
+	public LayerStatistics getLayer(String name) {
+		return layers.get(name);
+	}
+
+	/** returns the wall time spent on the whole document in nanoseconds */
+	public long getTime() {
+		return time;
+	}
+
+	/** returns the number of Salt nodes in the imported document graph */
+	public int getNodeCount() {
+		return nodeCount;
+	}
+
+	/** returns the number of Salt relations in the imported document graph */
+	public int getRelationCount() {
+		return relationCount;
+	}
+
+	/**
+	 * returns the number of annotations of the nodes and relations in the
+	 * imported document graph
+	 */
+	public int getAnnotationCount() {
+		return annotationCount;
+	}
+
+	/**
+	 * This method stores the counters as meta annotations of the given
+	 * document in the namespace {@link #NAMESPACE}, e.g. "tokens:time" or
+	 * "nodes". Times are given in milliseconds.
+	 */
+	void annotate(SDocument sDocument) {
+		for (LayerStatistics layer : layers.values()) {
+			sDocument.createMetaAnnotation(NAMESPACE, layer.getName() + CLN + "time", TimeUnit.NANOSECONDS.toMillis(layer.getTime()));
+			sDocument.createMetaAnnotation(NAMESPACE, layer.getName() + CLN + "elements", layer.getElementCount());
+			sDocument.createMetaAnnotation(NAMESPACE, layer.getName() + CLN + "nodes", layer.getNodeCount());
+			sDocument.createMetaAnnotation(NAMESPACE, layer.getName() + CLN + "relations", layer.getRelationCount());
+			if (layerAnnotations) {
+				sDocument.createMetaAnnotation(NAMESPACE, layer.getName() + CLN + "annotations", layer.getAnnotationCount());
+			}
+		}
+		sDocument.createMetaAnnotation(NAMESPACE, "time", TimeUnit.NANOSECONDS.toMillis(time));
+		sDocument.createMetaAnnotation(NAMESPACE, "nodes", nodeCount);
+		sDocument.createMetaAnnotation(NAMESPACE, "relations", relationCount);
+		sDocument.createMetaAnnotation(NAMESPACE, "annotations", annotationCount);
+	}
+}
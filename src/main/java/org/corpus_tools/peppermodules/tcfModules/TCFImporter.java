@@ -17,6 +17,9 @@
  */
 package org.corpus_tools.peppermodules.tcfModules;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
 import org.corpus_tools.pepper.impl.PepperImporterImpl;
 import org.corpus_tools.pepper.modules.PepperImporter;
 import org.corpus_tools.pepper.modules.PepperMapper;
@@ -28,6 +31,8 @@ import org.osgi.service.component.annotations.Component;
 
 @Component(name = "TCFImporterComponent", factory = "PepperImporterComponentFactory")
 public class TCFImporter extends PepperImporterImpl implements PepperImporter {
+	/** the listeners passed to each {@link TCFMapperImport} */
+	private final List<TCFImportListener> importListeners = new CopyOnWriteArrayList<TCFImportListener>();
 
 	// =================================================== mandatory
 	// ===================================================
@@ -72,6 +77,22 @@ public class TCFImporter extends PepperImporterImpl implements PepperImporter {
 	public PepperMapper createPepperMapper(Identifier sElementId) {
 		TCFMapperImport mapper = new TCFMapperImport();
 		mapper.setResourceURI(getIdentifier2ResourceTable().get(sElementId));
+		for (TCFImportListener listener : importListeners) {
+			mapper.addImportListener(listener);
+		}
 		return (mapper);
 	}
+
+	/**
+	 * registers a listener, which is notified each time a document was
+	 * imported
+	 */
+	public void addImportListener(TCFImportListener listener) {
+		importListeners.add(listener);
+	}
+
+	/** removes a listener registered by {@link #addImportListener} */
+	public void removeImportListener(TCFImportListener listener) {
+		importListeners.remove(listener);
+	}
 }
@@ -17,6 +17,9 @@
  */
 package org.corpus_tools.peppermodules.tcfModules;
 
+import java.util.LinkedHashSet;
+import java.util.Set;
+
 import org.corpus_tools.pepper.modules.PepperModuleProperties;
 import org.corpus_tools.pepper.modules.PepperModuleProperty;
 
@@ -32,10 +35,31 @@ public class TCFImporterProperties extends PepperModuleProperties {
 	 * level tcf annotation level a new span is created.
 	 **/
 	public static final String PROP_USE_COMMON_ANNOTATED_ELEMENT = "useCommonAnnotatedElement";
+	/**
+	 * if this property is "true" the TCF document is read with a StAX pull
+	 * parser, in which each layer is read by its own loop. In case "false" the
+	 * document is read with a SAX parser.
+	 */
+	public static final String PROP_USE_STAX = "useStAX";
+	/**
+	 * contains the names of the TCF layers to be imported, separated by
+	 * commas, e.g. "POStags, lemmas". The text and the tokens are always
+	 * imported. If the property is not set, all layers are imported.
+	 */
+	public static final String PROP_LAYERS = "layers";
+	/**
+	 * if this property is "true" the counters collected while importing a
+	 * document, e.g. the time spent in each layer, are stored as meta
+	 * annotations of the document.
+	 */
+	public static final String PROP_STATISTICS = "statistics";
 
 	public TCFImporterProperties() {
 		addProperty(new PepperModuleProperty<Boolean>(PROP_SHRINK_TOKEN_ANNOTATIONS, Boolean.class, "property that sais if spans are always used in tagging of tokens or only if necessary. Value of String has to be \"true\" or \"false\".", true, true));
 		addProperty(new PepperModuleProperty<Boolean>(PROP_USE_COMMON_ANNOTATED_ELEMENT, Boolean.class, "if this property is \"true\" spans are reused by TCFMapperImport and all annotations are stored at a common span. In case \"false\" on each level tcf annotation level a new span is created. Value of String has to be \"true\" or \"false\".", false, true));
+		addProperty(new PepperModuleProperty<Boolean>(PROP_USE_STAX, Boolean.class, "if this property is \"true\" the TCF document is read with a StAX pull parser, in which each layer is read by its own loop. In case \"false\" the document is read with a SAX parser. Value of String has to be \"true\" or \"false\".", false, false));
+		addProperty(new PepperModuleProperty<String>(PROP_LAYERS, String.class, "contains the names of the TCF layers to be imported, separated by commas, e.g. \"POStags, lemmas\". The text and the tokens are always imported. If the property is not set, all layers are imported.", null, false));
+		addProperty(new PepperModuleProperty<Boolean>(PROP_STATISTICS, Boolean.class, "if this property is \"true\" the counters collected while importing a document, e.g. the time spent in each layer, are stored as meta annotations of the document. Value of String has to be \"true\" or \"false\".", false, false));
 	}
 
 	public boolean isShrinkTokenAnnotation() {
@@ -55,4 +79,39 @@ public class TCFImporterProperties extends PepperModuleProperties {
 		}
 		return retVal;
 	}
+
+	public boolean isUseStAX() {
+		boolean retVal = false;
+		String prop = getProperty(PROP_USE_STAX).getValue().toString();
+		if ((prop != null) && (!prop.isEmpty())) {
+			retVal = Boolean.valueOf(prop);
+		}
+		return retVal;
+	}
+
+	public boolean isStatistics() {
+		boolean retVal = false;
+		String prop = getProperty(PROP_STATISTICS).getValue().toString();
+		if ((prop != null) && (!prop.isEmpty())) {
+			retVal = Boolean.valueOf(prop);
+		}
+		return retVal;
+	}
+
+	/**
+	 * @return the names of the layers to be imported or an empty set, if all
+	 *         layers are to be imported
+	 */
+	public Set<String> getLayers() {
+		Set<String> retVal = new LinkedHashSet<String>();
+		Object prop = getProperty(PROP_LAYERS).getValue();
+		if (prop != null) {
+			for (String layer : prop.toString().split(",")) {
+				if (!layer.trim().isEmpty()) {
+					retVal.add(layer.trim());
+				}
+			}
+		}
+		return retVal;
+	}
 }
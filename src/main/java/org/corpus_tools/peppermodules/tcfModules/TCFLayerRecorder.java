@@ -0,0 +1,144 @@
+/**
+ * Copyright 2009 Humboldt University of Berlin, INRIA.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.corpus_tools.peppermodules.tcfModules;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+/**
+ * This class emits a flight recorder event for each layer
+ * {@link TCFMapperExport} writes to a single file. The events carry the
+ * number of elements and bytes written for the layer, which are counted by
+ * wrapping the writer and the stream of the file. Whether layer events are
+ * enabled is checked once, when the recorder is created. In case they are
+ * disabled, writer and stream are used as they are and
+ * {@link #begin(String)} and {@link #end()} do nothing.
+ */
+class TCFLayerRecorder {
+	/** the id of the exported document */
+	private final String documentId;
+	/** is true, if layer events were enabled when the recorder was created */
+	private final boolean enabled;
+	/** counts the bytes written to the file */
+	private CountingOutputStream out;
+	/** counts the elements written to the file */
+	private CountingXMLStreamWriter writer;
+	/** the event of the current layer or null */
+	private Object event;
+	/** the name of the current layer */
+	private String layer;
+	/** the number of elements written before the current layer */
+	private long elementsAtStart;
+	/** the number of bytes written before the current layer */
+	private long bytesAtStart;
+
+	public TCFLayerRecorder(String documentId) {
+		this.documentId = documentId;
+		enabled = TCFEvents.isLayerEnabled();
+	}
+
+	/** returns a stream counting the bytes, if layer events are enabled */
+	public OutputStream wrap(OutputStream stream) {
+		if (!enabled) {
+			return stream;
+		}
+		out = new CountingOutputStream(stream);
+		return out;
+	}
+
+	/** returns a writer counting the elements, if layer events are enabled */
+	public XMLStreamWriter wrap(XMLStreamWriter w) {
+		if (!enabled) {
+			return w;
+		}
+		writer = new CountingXMLStreamWriter(w);
+		return writer;
+	}
+
+	/** This method starts the event of the given layer. */
+	public void begin(String layer) throws XMLStreamException {
+		if (!enabled) {
+			return;
+		}
+		this.layer = layer;
+		elementsAtStart = getElementCount();
+		bytesAtStart = getByteCount();
+		event = TCFEvents.beginLayer();
+	}
+
+	/**
+	 * This method ends and commits the event of the current layer. Like in the
+	 * import, the element of the layer itself is not counted.
+	 */
+	public void end() throws XMLStreamException {
+		if (event == null) {
+			return;
+		}
+		long elements = getElementCount() - elementsAtStart;
+		TCFEvents.endLayer(event, documentId, TCFEvents.EXPORT, layer, getByteCount() - bytesAtStart, Math.max(elements - 1, 0));
+		event = null;
+	}
+
+	/**
+	 * returns the number of elements written so far or 0, if layer events are
+	 * disabled
+	 */
+	public long getElementCount() {
+		return writer == null ? 0 : writer.getElementCount();
+	}
+
+	/**
+	 * returns the number of bytes written so far, the writer is flushed to
+	 * pass all pending characters to the stream
+	 */
+	private long getByteCount() throws XMLStreamException {
+		if (out == null) {
+			return 0;
+		}
+		if (writer != null) {
+			writer.flush();
+		}
+		return out.count;
+	}
+
+	/** This stream counts the bytes written to another stream. */
+	private static class CountingOutputStream extends FilterOutputStream {
+		private long count;
+
+		public CountingOutputStream(OutputStream out) {
+			super(out);
+			count = 0;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			out.write(b);
+			count++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			out.write(b, off, len);
+			count += len;
+		}
+	}
+}
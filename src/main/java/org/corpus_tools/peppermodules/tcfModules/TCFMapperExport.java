@@ -17,16 +17,33 @@
  */
 package org.corpus_tools.peppermodules.tcfModules;
 
+import java.io.BufferedOutputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.io.PrintWriter;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
-import javax.xml.stream.XMLOutputFactory;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamWriter;
 
@@ -36,22 +53,28 @@ import org.corpus_tools.pepper.modules.exceptions.PepperModuleDataException;
 import org.corpus_tools.pepper.modules.exceptions.PepperModuleException;
 import org.corpus_tools.salt.SALT_TYPE;
 import org.corpus_tools.salt.common.SDocumentGraph;
+import org.corpus_tools.salt.common.SDominanceRelation;
+import org.corpus_tools.salt.common.SPointingRelation;
 import org.corpus_tools.salt.common.SSpan;
+import org.corpus_tools.salt.common.SStructure;
 import org.corpus_tools.salt.common.STextualDS;
 import org.corpus_tools.salt.common.SToken;
 import org.corpus_tools.salt.core.SAnnotation;
+import org.corpus_tools.salt.core.SLayer;
+import org.corpus_tools.salt.core.SMetaAnnotation;
 import org.corpus_tools.salt.core.SNode;
+import org.corpus_tools.salt.core.SRelation;
+import org.corpus_tools.salt.util.SaltUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class TCFMapperExport extends PepperMapperImpl implements TCFDictionary {
 
 	private static final Logger logger = LoggerFactory.getLogger(TCFMapperExport.class);
+	/** the encoding of all TCF documents written */
+	private static final String ENCODING = "UTF-8";
 
-	private XMLStreamWriter currentTCF = null;
 	private HashMap<String, String> meta = null;
-	private HashMap<SNode, String> sNodes = null;
-	private HashSet<SToken> emptyTokens = null;
 	private String qNameLine = null;
 	private String valueLine = null;
 	private String qNamePage = null;
@@ -61,14 +84,33 @@ public class TCFMapperExport extends PepperMapperImpl implements TCFDictionary {
 	private String valueSentence = null;
 	private String qNamePOS = null;
 	private String qNameLemma = null;
+	private boolean streaming = false;
+	private int threads = 1;
+	/** provides writers and buffers, it is shared with the other mappers */
+	private TCFWriterFactory writerFactory = null;
+	/** writes the texts in parallel, it is shared with the other mappers */
+	private ExecutorService executor = null;
 
 	public TCFMapperExport() {
 	}
 
+	/**
+	 * sets the factory providing writers and buffers, by default each mapper
+	 * creates a factory of its own
+	 */
+	public void setWriterFactory(TCFWriterFactory writerFactory) {
+		this.writerFactory = writerFactory;
+	}
+
+	/**
+	 * sets the executor writing the texts of a document in parallel, by
+	 * default each mapper creates an executor of its own per document
+	 */
+	public void setExecutor(ExecutorService executor) {
+		this.executor = executor;
+	}
+
 	public void init() {
-		currentTCF = null;
-		sNodes = new HashMap<SNode, String>();
-		emptyTokens = new HashSet<SToken>();
 		qNameLine = ((TCFExporterProperties) getProperties()).getTextstructureLineName();
 		valueLine = ((TCFExporterProperties) getProperties()).getTextstructureLineValue();
 		qNamePage = ((TCFExporterProperties) getProperties()).getTextstructurePageName();
@@ -78,6 +120,8 @@ public class TCFMapperExport extends PepperMapperImpl implements TCFDictionary {
 		valueSentence = ((TCFExporterProperties) getProperties()).getSentenceValue();
 		qNamePOS = ((TCFExporterProperties) getProperties()).getPOSQName();
 		qNameLemma = ((TCFExporterProperties) getProperties()).getLemmaQName();
+		streaming = ((TCFExporterProperties) getProperties()).isStreaming();
+		threads = ((TCFExporterProperties) getProperties()).getThreads();
 		initMeta();
 	}
 
@@ -99,73 +143,211 @@ public class TCFMapperExport extends PepperMapperImpl implements TCFDictionary {
 		if (getDocument() == null) {
 			throw new PepperModuleDataException(this, "No document delivered to be converted.");
 		}
-		ByteArrayOutputStream outStream = null;
-		XMLOutputFactory factory = XMLOutputFactory.newFactory();
-		XMLStreamWriter w;
-		File file = null;
-		PrintWriter p;
+		Object documentEvent = TCFEvents.beginDocument();
+		final Map<STextualDS, ExportContext> contexts = ExportContext.partition(getDocument().getDocumentGraph(), emptyTokensAllowed, qNamePOS, qNameLemma);
+		if (writerFactory == null) {
+			writerFactory = new TCFWriterFactory();
+		}
+		final TCFWriterFactory factory = writerFactory;
 		boolean multipleFiles = getDocument().getDocumentGraph().getTextualDSs().size() > 1;
 		List<STextualDS> sTextualDSs = getDocument().getDocumentGraph().getTextualDSs();
-		STextualDS sTextualDS = null;
-		for (int i = 0; i < sTextualDSs.size(); i++) {
+		if (multipleFiles && threads > 1) {
+			/* each text is written by a task of its own */
+			boolean ownExecutor = executor == null;
+			ExecutorService pool = ownExecutor ? Executors.newFixedThreadPool(Math.min(threads, sTextualDSs.size())) : this.executor;
+			List<Future<Void>> tasks = new ArrayList<Future<Void>>();
 			try {
-				sTextualDS = sTextualDSs.get(i);
-				outStream = new ByteArrayOutputStream();
-				w = currentTCF = factory.createXMLStreamWriter(outStream);
-				w.writeStartDocument();
-				w.writeProcessingInstruction(TCF_PI);
-				w.writeStartElement(TCFDictionary.NS_WL, TCFDictionary.TAG_WL_D_SPIN, TCFDictionary.NS_VALUE_WL);
-				w.writeNamespace(NS_ED, NS_VALUE_ED);
-				w.writeNamespace(NS_LX, NS_VALUE_LX);
-				w.writeNamespace(NS_MD, NS_VALUE_MD);
-				w.writeNamespace(NS_TC, NS_VALUE_TC);
-				w.writeNamespace(NS_WL, NS_VALUE_WL);
-				w.writeAttribute(ATT_VERSION, "0.4");
-				w.writeStartElement(NS_MD, TAG_MD_METADATA, NS_VALUE_MD);
-				w.writeEndElement();
-				w.writeStartElement(NS_TC, TAG_TC_TEXTCORPUS, NS_VALUE_TC);
-				w.writeAttribute(ATT_LANG, getLanguage());// TODO see also above
-															// (meta)
-				mapSTextualDS(sTextualDS);
-				mapTokenization(getDocument().getDocumentGraph().getSortedTokenByText());
-				mapSentences();
-				mapPOSAnnotations();
-				mapLemmaAnnotations();
-				mapLayoutAnnotations();
-				w.writeEndElement();// end of textcorpus
-				w.writeEndElement();// end of d-spin
-				w.writeEndDocument();
+				for (int i = 0; i < sTextualDSs.size(); i++) {
+					final STextualDS sTextualDS = sTextualDSs.get(i);
+					final File file = getFile(i, multipleFiles);
+					tasks.add(pool.submit(new Callable<Void>() {
+						@Override
+						public Void call() throws XMLStreamException {
+							exportText(factory, sTextualDS, contexts.get(sTextualDS), file);
+							return null;
+						}
+					}));
+				}
+				for (Future<Void> task : tasks) {
+					task.get();
+				}
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof RuntimeException) {
+					throw (RuntimeException) e.getCause();
+				}
+				throw new PepperModuleException(this, "Could not write TCF " + getResourceURI(), e.getCause());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new PepperModuleException(this, "Interrupted while writing TCF " + getResourceURI(), e);
+			} finally {
+				if (ownExecutor) {
+					pool.shutdownNow();
+				} else {
+					for (Future<Void> task : tasks) {
+						task.cancel(true);
+					}
+				}
+			}
+		} else {
+			STextualDS sTextualDS = null;
+			for (int i = 0; i < sTextualDSs.size(); i++) {
+				try {
+					sTextualDS = sTextualDSs.get(i);
+					exportText(factory, sTextualDS, contexts.get(sTextualDS), getFile(i, multipleFiles));
+				} catch (XMLStreamException e) {
+					throw new PepperModuleException();
+				}
+			}
+		}
+		if (documentEvent != null) {
+			long bytes = 0;
+			for (int i = 0; i < sTextualDSs.size(); i++) {
+				bytes += getFile(i, multipleFiles).length();
+			}
+			TCFEvents.endDocument(documentEvent, getDocument().getId(), TCFEvents.EXPORT, bytes, getDocument().getDocumentGraph().getNodes().size(), getDocument().getDocumentGraph().getRelations().size());
+		}
+		return DOCUMENT_STATUS.COMPLETED;
+	}
+
+	/** returns the file the text with the given index is written to */
+	private File getFile(int i, boolean multipleFiles) {
+		return new File(getResourceURI().toFileString() + (multipleFiles ? +i + ".tcf" : ""));// FIXME
+																								// A)
+																								// File
+																								// ending
+																								// missing
+																								// B)we
+																								// need
+																								// a
+																								// language
+																								// stack,
+																								// too,
+																								// in
+																								// case
+																								// of
+																								// parallel
+																								// corpora
+	}
+
+	/**
+	 * This method writes the TCF document of the given {@link STextualDS} to
+	 * the given file. All state of the export of the text is kept in the
+	 * given context and the writer created for it, so several texts can be
+	 * exported at the same time. Writing the file is recorded as flight
+	 * recorder event.
+	 */
+	private void exportText(TCFWriterFactory factory, STextualDS sTextualDS, ExportContext context, File file) throws XMLStreamException {
+		Object fileWriteEvent = TCFEvents.beginFileWrite();
+		TCFLayerRecorder recorder = new TCFLayerRecorder(getDocument().getId());
+		file.getParentFile().mkdirs();
+		if (streaming) {
+			writeTCF(factory, sTextualDS, context, file, recorder);
+		} else {
+			ByteArrayOutputStream outStream = factory.borrowBuffer();
+			try {
+				mapTCF(recorder.wrap(factory.createXMLStreamWriter(recorder.wrap(outStream), ENCODING)), sTextualDS, context, recorder);
 
 				/* write File */
-				file = new File(getResourceURI().toFileString() + (multipleFiles ? +i + ".tcf" : ""));// FIXME
-																										// A)
-																										// File
-																										// ending
-																										// missing
-																										// B)we
-																										// need
-																										// a
-																										// language
-																										// stack,
-																										// too,
-																										// in
-																										// case
-																										// of
-																										// parallel
-																										// corpora
-				file.getParentFile().mkdirs();
 				try {
-					p = new PrintWriter(file);
-					p.println(outStream.toString());
+					PrintWriter p = new PrintWriter(file, ENCODING);
+					p.println(outStream.toString(ENCODING));
 					p.close();
-				} catch (FileNotFoundException e) {
-					logger.error("Could not write TCF " + getResourceURI(), e);
+					if (p.checkError()) {
+						throw new IOException("Could not write to " + file);
+					}
+				} catch (IOException e) {
+					throw new PepperModuleException(this, "Could not write TCF " + getResourceURI(), e);
 				}
-			} catch (XMLStreamException e) {
-				throw new PepperModuleException();
+			} finally {
+				factory.returnBuffer(outStream);
+			}
+		}
+		if (fileWriteEvent != null) {
+			TCFEvents.endFileWrite(fileWriteEvent, getDocument().getId(), file.getPath(), file.length(), recorder.getElementCount());
+		}
+	}
+
+	/**
+	 * This method maps the document with the given {@link STextualDS} as
+	 * primary text to a TCF document written by the given writer. The writing
+	 * of each layer is passed to the given recorder.
+	 */
+	private void mapTCF(XMLStreamWriter w, STextualDS sTextualDS, ExportContext context, TCFLayerRecorder recorder) throws XMLStreamException {
+		w.writeStartDocument();
+		w.writeProcessingInstruction(TCF_PI);
+		w.writeStartElement(TCFDictionary.NS_WL, TCFDictionary.TAG_WL_D_SPIN, TCFDictionary.NS_VALUE_WL);
+		w.writeNamespace(NS_ED, NS_VALUE_ED);
+		w.writeNamespace(NS_LX, NS_VALUE_LX);
+		w.writeNamespace(NS_MD, NS_VALUE_MD);
+		w.writeNamespace(NS_TC, NS_VALUE_TC);
+		w.writeNamespace(NS_WL, NS_VALUE_WL);
+		w.writeAttribute(ATT_VERSION, "0.4");
+		w.writeStartElement(NS_MD, TAG_MD_METADATA, NS_VALUE_MD);
+		w.writeEndElement();
+		w.writeStartElement(NS_TC, TAG_TC_TEXTCORPUS, NS_VALUE_TC);
+		w.writeAttribute(ATT_LANG, getLanguage());// TODO see also above
+													// (meta)
+		recorder.begin(TAG_TC_TEXT);
+		mapSTextualDS(w, sTextualDS);
+		recorder.end();
+		recorder.begin(TAG_TC_TOKENS);
+		mapTokenization(w, context);
+		recorder.end();
+		List<int[]> sentences = getSentences(context);
+		recorder.begin(TAG_TC_SENTENCES);
+		mapSentences(w, context, sentences);
+		recorder.end();
+		recorder.begin(TAG_TC_POSTAGS);
+		mapPOSAnnotations(w, context);
+		recorder.end();
+		recorder.begin(TAG_TC_LEMMAS);
+		mapLemmaAnnotations(w, context);
+		recorder.end();
+		recorder.begin(TAG_TC_PARSING);
+		mapConstituents(w, context);
+		recorder.end();
+		recorder.begin(TAG_TC_DEPPARSING);
+		mapDependencies(w, context, sentences);
+		recorder.end();
+		recorder.begin(TAG_TC_TEXTSTRUCTURE);
+		mapLayoutAnnotations(w, context);
+		recorder.end();
+		w.writeEndElement();// end of textcorpus
+		w.writeEndElement();// end of d-spin
+		w.writeEndDocument();
+	}
+
+	/**
+	 * This method writes the TCF document directly to the given file encoded
+	 * in UTF-8. The document is written to a temporary file next to the
+	 * target, which is moved into place when the document is complete, so the
+	 * target never contains a partial document.
+	 */
+	private void writeTCF(TCFWriterFactory factory, STextualDS sTextualDS, ExportContext context, File file, TCFLayerRecorder recorder) throws XMLStreamException {
+		File tmpFile = null;
+		try {
+			tmpFile = File.createTempFile(file.getName(), ".part", file.getParentFile());
+			OutputStream out = new BufferedOutputStream(new FileOutputStream(tmpFile));
+			try {
+				XMLStreamWriter w = recorder.wrap(factory.createXMLStreamWriter(recorder.wrap(out), ENCODING));
+				mapTCF(w, sTextualDS, context, recorder);
+				w.close();
+			} finally {
+				out.close();
+			}
+			try {
+				Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+			tmpFile = null;
+		} catch (IOException e) {
+			throw new PepperModuleException(this, "Could not write TCF " + getResourceURI(), e);
+		} finally {
+			if (tmpFile != null) {
+				tmpFile.delete();
 			}
 		}
-		return DOCUMENT_STATUS.COMPLETED;
 	}
 
 	private String getLanguage() {
@@ -173,39 +355,28 @@ public class TCFMapperExport extends PepperMapperImpl implements TCFDictionary {
 		return "x-unspecified";
 	}
 
-	private void mapSTextualDS(STextualDS ds) {
-		XMLStreamWriter w = currentTCF;
+	private void mapSTextualDS(XMLStreamWriter w, STextualDS ds) {
 		try {
 			w.writeStartElement(NS_TC, TAG_TC_TEXT, NS_VALUE_TC);
 			w.writeCharacters(ds.getText());
 			w.writeEndElement();
 		} catch (XMLStreamException e) {
 		}
-		w = null;
 	}
 
-	private void mapTokenization(List<SToken> sTokens) {
+	private void mapTokenization(XMLStreamWriter w, ExportContext context) {
 		// TODO sTokens supposed to be ordered!
-		if (!sTokens.isEmpty()) {
-			XMLStreamWriter w = currentTCF;
+		if (context.size() > 0) {
 			try {
 				w.writeStartElement(NS_TC, TAG_TC_TOKENS, NS_VALUE_TC);
-				SDocumentGraph sDocGraph = getDocument().getDocumentGraph();
-				int i = 0;
 				String id = null;
-				String sText = null;
-				for (SToken sTok : sTokens) {
-					sText = sDocGraph.getText(sTok);
-					if (emptyTokensAllowed || !sText.replace(" ", "").replace(System.getProperty("line.separator"), "").replace("\t", "").isEmpty()) {
-						i++;
-						id = "t_" + i;
-						sNodes.put(sTok, id);
+				for (int i = 0; i < context.size(); i++) {
+					id = context.getId(i);
+					if (id != null) {
 						w.writeStartElement(NS_TC, TAG_TC_TOKEN, NS_VALUE_TC);
 						w.writeAttribute(ATT_ID, id);
-						w.writeCharacters(sText);
+						w.writeCharacters(context.getText(), context.getStart(i), context.getEnd(i) - context.getStart(i));
 						w.writeEndElement();// end of token
-					} else {
-						emptyTokens.add(sTok);
 					}
 				}
 				w.writeEndElement();// end of tokens
@@ -214,34 +385,40 @@ public class TCFMapperExport extends PepperMapperImpl implements TCFDictionary {
 		}
 	}
 
-	private void mapSentences() {
-		/* write */
-		XMLStreamWriter w = currentTCF;
+	/**
+	 * This method collects the sentences of the text.
+	 * 
+	 * @return the positions of the tokens of each sentence, the sentences are
+	 *         ordered by the text
+	 */
+	private List<int[]> getSentences(ExportContext context) {
 		SDocumentGraph sDocGraph = getDocument().getDocumentGraph();
-		List<SSpan> sSpans = new ArrayList<SSpan>();
-		for (SSpan sSpan : getDocument().getDocumentGraph().getSpans()) {
-			if (sSpan.getAnnotation(qNameSentence) != null && sSpan.getAnnotation(qNameSentence).getValue().toString().equals(valueSentence)) {
-				sSpans.add(sSpan);
+		List<int[]> sentences = new ArrayList<int[]>();
+		for (SNode sNode : context.getNodes(qNameSentence)) {
+			if (sNode instanceof SSpan && sNode.getAnnotation(qNameSentence).getValue().toString().equals(valueSentence)) {
+				int[] sentence = context.getPositions(sDocGraph.getOverlappedTokens(sNode, SALT_TYPE.SSPANNING_RELATION));
+				if (sentence.length > 0) {// sentences of other texts are left
+											// out
+					sentences.add(sentence);
+				}
 			}
 		}
-		List<SToken> sTokens = null;
-		String value = "";
+		/* sentences are written in the order of the text */
+		Collections.sort(sentences, TEXT_ORDER);
+		return sentences;
+	}
+
+	private void mapSentences(XMLStreamWriter w, ExportContext context, List<int[]> sentences) {
+		StringBuilder value = new StringBuilder();
 		try {
-			if (!sSpans.isEmpty()) {
+			if (!sentences.isEmpty()) {
 				w.writeStartElement(NS_TC, TAG_TC_SENTENCES, NS_VALUE_TC);
-				SSpan sSpan = null;
-				for (int j = 0; j < sSpans.size(); j++) {
-					sSpan = sSpans.get(j);
-					sTokens = sDocGraph.getOverlappedTokens(sSpan, SALT_TYPE.SSPANNING_RELATION);
-					sTokens = sDocGraph.getSortedTokenByText(sTokens);
+				for (int j = 0; j < sentences.size(); j++) {
 					w.writeStartElement(NS_TC, TAG_TC_SENTENCE, NS_VALUE_TC);
 					w.writeAttribute(ATT_ID, "s_" + (j + 1));
-					for (SToken sTok : sTokens) {
-						value += emptyTokens.contains(sTok) ? "" : " " + sNodes.get(sTok);
-					}
-					w.writeAttribute(ATT_TOKENIDS, value.trim());
+					value.setLength(0);
+					w.writeAttribute(ATT_TOKENIDS, context.appendIds(value, sentences.get(j)).toString());
 					w.writeEndElement();
-					value = "";
 				}
 				w.writeEndElement();// end of sentences
 			}
@@ -249,26 +426,23 @@ public class TCFMapperExport extends PepperMapperImpl implements TCFDictionary {
 		}
 	}
 
-	private void mapPOSAnnotations() {
-		XMLStreamWriter w = currentTCF;
-		List<SAnnotation> sAnnos = new ArrayList<SAnnotation>();
-		SAnnotation anno = null;
-		for (SToken sTok : getDocument().getDocumentGraph().getSortedTokenByText()) {
-			anno = sTok.getAnnotation(qNamePOS);
-			if (anno != null) {
-				sAnnos.add(anno);
+	private void mapPOSAnnotations(XMLStreamWriter w, ExportContext context) {
+		List<Integer> positions = new ArrayList<Integer>();
+		for (int i = 0; i < context.size(); i++) {
+			if (context.getPOSAnnotation(i) != null) {
+				positions.add(i);
 			}
 		}
 		try {
-			if (!sAnnos.isEmpty()) {
+			if (!positions.isEmpty()) {
 				w.writeStartElement(NS_TC, TAG_TC_POSTAGS, NS_VALUE_TC);
 				w.writeAttribute(ATT_TAGSET, "stts"/* TODO */);
 				int k = 1;
-				for (SAnnotation sAnno : sAnnos) {
+				for (int position : positions) {
 					w.writeStartElement(NS_TC, TAG_TC_TAG, NS_VALUE_TC);
 					w.writeAttribute(ATT_ID, "pt_" + k++);
-					w.writeAttribute(ATT_TOKENIDS, sNodes.get(sAnno.getContainer()));
-					w.writeCharacters(sAnno.getValue().toString());
+					w.writeAttribute(ATT_TOKENIDS, context.getId(position));
+					w.writeCharacters(context.getPOSAnnotation(position).getValue().toString());
 					w.writeEndElement();// end of tag
 				}
 				w.writeEndElement();// end of POSTags
@@ -278,25 +452,22 @@ public class TCFMapperExport extends PepperMapperImpl implements TCFDictionary {
 		}
 	}
 
-	private void mapLemmaAnnotations() {
-		XMLStreamWriter w = currentTCF;
-		List<SAnnotation> sAnnos = new ArrayList<SAnnotation>();
-		SAnnotation anno = null;
-		for (SToken sTok : getDocument().getDocumentGraph().getSortedTokenByText()) {
-			anno = sTok.getAnnotation(qNameLemma);
-			if (anno != null) {
-				sAnnos.add(anno);
+	private void mapLemmaAnnotations(XMLStreamWriter w, ExportContext context) {
+		List<Integer> positions = new ArrayList<Integer>();
+		for (int i = 0; i < context.size(); i++) {
+			if (context.getLemmaAnnotation(i) != null) {
+				positions.add(i);
 			}
 		}
 		try {
-			if (!sAnnos.isEmpty()) {
+			if (!positions.isEmpty()) {
 				w.writeStartElement(NS_TC, TAG_TC_LEMMAS, NS_VALUE_TC);
 				int k = 1;
-				for (SAnnotation sAnno : sAnnos) {
+				for (int position : positions) {
 					w.writeStartElement(NS_TC, TAG_TC_LEMMA, NS_VALUE_TC);
 					w.writeAttribute(ATT_ID, "le_" + k++);
-					w.writeAttribute(ATT_TOKENIDS, sNodes.get(sAnno.getContainer()));
-					w.writeCharacters(sAnno.getValue().toString());
+					w.writeAttribute(ATT_TOKENIDS, context.getId(position));
+					w.writeCharacters(context.getLemmaAnnotation(position).getValue().toString());
 					w.writeEndElement();
 				}
 				w.writeEndElement();
@@ -306,45 +477,276 @@ public class TCFMapperExport extends PepperMapperImpl implements TCFDictionary {
 		}
 	}
 
-	private void mapLayoutAnnotations() {
+	/**
+	 * This method writes the constituent trees of the text. Each tree is rooted
+	 * in an {@link SStructure} having a category, which is not dominated by
+	 * another node. The trees are traversed with explicit stacks instead of
+	 * recursion, so deep trees do not overflow the call stack. The children of
+	 * a constituent are written in the order of their first tokens, they are
+	 * only sorted, if the graph does not provide them in this order.
+	 */
+	private void mapConstituents(XMLStreamWriter w, ExportContext context) {
+		String qNameCat = TCFMapperImport.LAYER_CONSTITUENTS + SaltUtil.NAMESPACE_SEPERATOR + ATT_CAT;
+		List<Constituent> roots = new ArrayList<Constituent>();
+		Set<SNode> visited = Collections.newSetFromMap(new IdentityHashMap<SNode, Boolean>());
+		for (SNode sNode : context.getNodes(qNameCat)) {
+			if (sNode instanceof SStructure && !isDominated(sNode) && visited.add(sNode)) {
+				Constituent root = buildTree(sNode, context, visited);
+				if (root.first >= 0) {// trees of other texts are left out
+					roots.add(root);
+				}
+			}
+		}
+		if (roots.isEmpty()) {
+			return;
+		}
+		Collections.sort(roots, FIRST_TOKEN_ORDER);
+		/* write */
+		StringBuilder value = new StringBuilder();
+		Deque<Constituent> stack = new ArrayDeque<Constituent>();
+		int n = 1;
+		try {
+			w.writeStartElement(NS_TC, TAG_TC_PARSING, NS_VALUE_TC);
+			String tagset = getTagset(TCFMapperImport.LAYER_CONSTITUENTS);
+			if (tagset != null) {
+				w.writeAttribute(ATT_TAGSET, tagset);
+			}
+			for (int k = 0; k < roots.size(); k++) {
+				w.writeStartElement(NS_TC, TAG_TC_PARSE, NS_VALUE_TC);
+				w.writeAttribute(ATT_ID, "p_" + (k + 1));
+				writeConstituent(w, roots.get(k), "c_" + n++, qNameCat);
+				stack.push(roots.get(k));
+				while (!stack.isEmpty()) {
+					Constituent constituent = stack.peek();
+					if (constituent.next < constituent.children.size()) {
+						Constituent child = constituent.children.get(constituent.next++);
+						writeConstituent(w, child, "c_" + n++, qNameCat);
+						if (child.positions == null) {
+							stack.push(child);
+						} else {
+							value.setLength(0);
+							w.writeAttribute(ATT_TOKENIDS, context.appendIds(value, child.positions).toString());
+							w.writeEndElement();
+						}
+					} else {
+						w.writeEndElement();// end of constituent
+						stack.pop();
+					}
+				}
+				w.writeEndElement();// end of parse
+			}
+			w.writeEndElement();// end of parsing
+		} catch (XMLStreamException e) {
+			logger.warn("Failed to write constituents.");
+		}
+	}
+
+	/** returns true, if the given node is dominated by another node */
+	private static boolean isDominated(SNode sNode) {
+		for (SRelation<?, ?> sRel : sNode.getInRelations()) {
+			if (sRel instanceof SDominanceRelation) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * This method builds the tree dominated by the given node in post order,
+	 * so the first token of each constituent is known, when its children are
+	 * ordered. Constituents not covering any exported token of the text are
+	 * left out.
+	 * 
+	 * @param visited
+	 *            the nodes already being part of a tree, they are not visited
+	 *            twice
+	 */
+	private Constituent buildTree(SNode sRoot, ExportContext context, Set<SNode> visited) {
+		SDocumentGraph sDocGraph = getDocument().getDocumentGraph();
+		Constituent root = new Constituent(sRoot, null);
+		Deque<Constituent> stack = new ArrayDeque<Constituent>();
+		stack.push(root);
+		while (!stack.isEmpty()) {
+			Constituent constituent = stack.peek();
+			if (constituent.children == null) {
+				/* first visit, the children are created */
+				constituent.children = new ArrayList<Constituent>();
+				for (SRelation<?, ?> sRel : constituent.sNode.getOutRelations()) {
+					SNode sTarget = (SNode) sRel.getTarget();
+					if (sRel instanceof SDominanceRelation && visited.add(sTarget)) {
+						if (sTarget instanceof SStructure) {
+							Constituent child = new Constituent(sTarget, null);
+							constituent.children.add(child);
+							stack.push(child);
+						} else {
+							List<SToken> sTokens = sTarget instanceof SToken ? Collections.singletonList((SToken) sTarget) : sDocGraph.getOverlappedTokens(sTarget, SALT_TYPE.SSPANNING_RELATION);
+							Constituent leaf = new Constituent(sTarget, context.getPositions(sTokens));
+							for (int i = leaf.positions.length - 1; i >= 0; i--) {
+								if (context.getId(leaf.positions[i]) != null) {
+									leaf.first = leaf.positions[i];
+								}
+							}
+							constituent.children.add(leaf);
+						}
+					}
+				}
+			} else {
+				/* all children are complete */
+				stack.pop();
+				List<Constituent> children = new ArrayList<Constituent>(constituent.children.size());
+				boolean sorted = true;
+				for (Constituent child : constituent.children) {
+					if (child.first >= 0) {
+						sorted &= children.isEmpty() || children.get(children.size() - 1).first <= child.first;
+						children.add(child);
+					}
+				}
+				if (!sorted) {
+					Collections.sort(children, FIRST_TOKEN_ORDER);
+				}
+				constituent.children = children;
+				constituent.first = children.isEmpty() ? -1 : children.get(0).first;
+			}
+		}
+		return root;
+	}
+
+	/**
+	 * This method starts the element of the given constituent and writes its
+	 * id and category.
+	 */
+	private static void writeConstituent(XMLStreamWriter w, Constituent constituent, String id, String qNameCat) throws XMLStreamException {
+		w.writeStartElement(NS_TC, TAG_TC_CONSTITUENT, NS_VALUE_TC);
+		w.writeAttribute(ATT_ID, id);
+		SAnnotation cat = constituent.sNode.getAnnotation(qNameCat);
+		if (cat != null) {
+			w.writeAttribute(ATT_CAT, cat.getValue_STEXT());
+		}
+	}
+
+	/**
+	 * This method writes the dependency relations between the tokens of the
+	 * text. Each sentence becomes a parse containing the dependencies of its
+	 * tokens. The relations are assigned to the sentence of their dependent
+	 * in a single pass, dependents not belonging to any sentence make up a
+	 * last parse.
+	 */
+	private void mapDependencies(XMLStreamWriter w, ExportContext context, List<int[]> sentences) {
+		/* maps each token to the first sentence containing it */
+		int[] sentenceOf = new int[context.size()];
+		Arrays.fill(sentenceOf, sentences.size());
+		for (int j = sentences.size() - 1; j >= 0; j--) {
+			for (int position : sentences.get(j)) {
+				sentenceOf[position] = j;
+			}
+		}
+		List<List<Dependency>> parses = new ArrayList<List<Dependency>>(Collections.<List<Dependency>> nCopies(sentences.size() + 1, null));
+		int dependencies = 0;
+		String qNameFunc = TCFMapperImport.LAYER_DEPENDENCIES + SaltUtil.NAMESPACE_SEPERATOR + ATT_FUNC;
+		for (SPointingRelation sPointingRel : context.getDependencies()) {
+			int governor = context.getPosition((SToken) sPointingRel.getSource());
+			int dependent = context.getPosition((SToken) sPointingRel.getTarget());
+			if (governor >= 0 && dependent >= 0 && context.getId(governor) != null && context.getId(dependent) != null) {
+				List<Dependency> parse = parses.get(sentenceOf[dependent]);
+				if (parse == null) {
+					parse = new ArrayList<Dependency>();
+					parses.set(sentenceOf[dependent], parse);
+				}
+				SAnnotation func = sPointingRel.getAnnotation(qNameFunc);
+				parse.add(new Dependency(governor, dependent, func == null ? null : func.getValue_STEXT()));
+				dependencies++;
+			}
+		}
+		if (dependencies == 0) {
+			return;
+		}
+		try {
+			w.writeStartElement(NS_TC, TAG_TC_DEPPARSING, NS_VALUE_TC);
+			String tagset = getTagset(TCFMapperImport.LAYER_DEPENDENCIES);
+			if (tagset != null) {
+				w.writeAttribute(ATT_TAGSET, tagset);
+			}
+			int k = 1;
+			for (List<Dependency> parse : parses) {
+				if (parse != null) {
+					w.writeStartElement(NS_TC, TAG_TC_PARSE, NS_VALUE_TC);
+					w.writeAttribute(ATT_ID, "d_" + k++);
+					for (Dependency dependency : parse) {
+						w.writeStartElement(NS_TC, TAG_TC_DEPENDENCY, NS_VALUE_TC);
+						if (dependency.func != null) {
+							w.writeAttribute(ATT_FUNC, dependency.func);
+						}
+						w.writeAttribute(ATT_DEPIDS, context.getId(dependency.dependent));
+						w.writeAttribute(ATT_GOVIDS, context.getId(dependency.governor));
+						w.writeEndElement();
+					}
+					w.writeEndElement();// end of parse
+				}
+			}
+			w.writeEndElement();// end of depparsing
+		} catch (XMLStreamException e) {
+			logger.warn("Failed to write dependencies.");
+		}
+	}
+
+	/**
+	 * returns the tagset of the layer with the given name created by the
+	 * import or null, if there is none
+	 */
+	private String getTagset(String layerName) {
+		List<SLayer> sLayers = getDocument().getDocumentGraph().getLayerByName(layerName);
+		if (sLayers != null) {
+			for (SLayer sLayer : sLayers) {
+				SMetaAnnotation tagset = sLayer.getMetaAnnotation(ATT_TAGSET);
+				if (tagset != null) {
+					return tagset.getValue_STEXT();
+				}
+			}
+		}
+		return null;
+	}
+
+	private void mapLayoutAnnotations(XMLStreamWriter w, ExportContext context) {
 		/* collect all relevant spans */
-		List<SNode> layoutNodes = new ArrayList<SNode>();
+		SDocumentGraph sDocGraph = getDocument().getDocumentGraph();
+		List<TextSpan> layoutSpans = new ArrayList<TextSpan>();
 		SAnnotation anno = null;
-		for (SNode sNode : getDocument().getDocumentGraph().getNodes()) {
-			anno = sNode.getAnnotation(qNameLine);
-			if (anno != null && anno.getValue_STEXT().equals(valueLine)) {
-				layoutNodes.add(sNode);
-			}
+		for (SNode sNode : context.getNodes(qNamePage)) {
 			anno = sNode.getAnnotation(qNamePage);
-			if (anno != null && anno.getValue_STEXT().equals(valuePage)) {
-				layoutNodes.add(sNode);
+			if (valuePage.equals(anno.getValue_STEXT())) {
+				layoutSpans.add(new TextSpan(context.getPositions(sDocGraph.getOverlappedTokens(sNode, SALT_TYPE.SSPANNING_RELATION, SALT_TYPE.SDOMINANCE_RELATION)), "page"));
+			}
+		}
+		for (SNode sNode : context.getNodes(qNameLine)) {
+			anno = sNode.getAnnotation(qNameLine);
+			if (valueLine.equals(anno.getValue_STEXT())) {
+				layoutSpans.add(new TextSpan(context.getPositions(sDocGraph.getOverlappedTokens(sNode, SALT_TYPE.SSPANNING_RELATION, SALT_TYPE.SDOMINANCE_RELATION)), "line"));
 			}
 		}
-		// TODO Spans are maybe not sorted by Text
-		if (!layoutNodes.isEmpty()) {
-			XMLStreamWriter w = currentTCF;
+		/* spans are written in the order of the text, pages before lines */
+		Collections.sort(layoutSpans, new Comparator<TextSpan>() {
+			@Override
+			public int compare(TextSpan span1, TextSpan span2) {
+				return TEXT_ORDER.compare(span1.positions, span2.positions);
+			}
+		});
+		if (!layoutSpans.isEmpty()) {
 			try {
 				w.writeStartElement(NS_TC, TAG_TC_TEXTSTRUCTURE, NS_VALUE_TC);
-				List<SToken> sTokens = null;
-				String type = null;
-				for (SNode sNode : layoutNodes) {
-					sTokens = getDocument().getDocumentGraph().getSortedTokenByText(getDocument().getDocumentGraph().getOverlappedTokens(sNode, SALT_TYPE.SSPANNING_RELATION, SALT_TYPE.SDOMINANCE_RELATION));
-					List<SToken> realTokens = new ArrayList<SToken>();
-					for (SToken sTok : sTokens) {
-						if (!emptyTokens.contains(sTok)) {
-							realTokens.add(sTok);
+				for (TextSpan layoutSpan : layoutSpans) {
+					String start = null;
+					String end = null;
+					for (int position : layoutSpan.positions) {
+						if (context.getId(position) != null) {
+							start = start == null ? context.getId(position) : start;
+							end = context.getId(position);
 						}
 					}
-					if (!realTokens.isEmpty()) {
+					if (start != null) {
 						w.writeStartElement(NS_TC, TAG_TC_TEXTSPAN, NS_VALUE_TC);
-						w.writeAttribute(ATT_START, sNodes.get(realTokens.get(0)));
-						w.writeAttribute(ATT_END, sNodes.get(realTokens.get(realTokens.size() - 1)));
-						type = sNode.getAnnotation(qNamePage) != null && sNode.getAnnotation(qNamePage)
-								.getValue().equals(valuePage) ? "page" : (sNode.getAnnotation(qNameLine) != null && sNode.getAnnotation(qNameLine).getValue().equals(valueLine) ? "line" : "IMPOSSIBLE RIGHT NOW"/*
-																																																					 * to be
-																																																					 * continued
-																																																					 */);
-						w.writeAttribute(ATT_TYPE, type);
+						w.writeAttribute(ATT_START, start);
+						w.writeAttribute(ATT_END, end);
+						w.writeAttribute(ATT_TYPE, layoutSpan.type);
 						w.writeEndElement();
 					}
 				}
@@ -353,4 +755,87 @@ public class TCFMapperExport extends PepperMapperImpl implements TCFDictionary {
 			}
 		}
 	}
+
+	/**
+	 * orders the positions of the tokens of spans by the first token, spans
+	 * starting at the same token by their last token descending, so that
+	 * enclosing spans come first. Spans without tokens come last.
+	 */
+	private static final Comparator<int[]> TEXT_ORDER = new Comparator<int[]>() {
+		@Override
+		public int compare(int[] span1, int[] span2) {
+			if (span1.length == 0 || span2.length == 0) {
+				return span1.length == 0 ? (span2.length == 0 ? 0 : 1) : -1;
+			}
+			if (span1[0] != span2[0]) {
+				return span1[0] < span2[0] ? -1 : 1;
+			}
+			int end1 = span1[span1.length - 1];
+			int end2 = span2[span2.length - 1];
+			return end1 > end2 ? -1 : (end1 == end2 ? 0 : 1);
+		}
+	};
+
+	/** orders constituents by their first tokens */
+	private static final Comparator<Constituent> FIRST_TOKEN_ORDER = new Comparator<Constituent>() {
+		@Override
+		public int compare(Constituent constituent1, Constituent constituent2) {
+			return Integer.compare(constituent1.first, constituent2.first);
+		}
+	};
+
+	/** a node of a constituent tree */
+	private static class Constituent {
+		/** the structure, span or token of the constituent */
+		private final SNode sNode;
+		/**
+		 * the positions of the tokens of a leaf, it is null for constituents
+		 * dominating other constituents
+		 */
+		private final int[] positions;
+		/** the children in the order of their first tokens */
+		private List<Constituent> children;
+		/**
+		 * the position of the first exported token of the constituent or -1,
+		 * if it does not cover any
+		 */
+		private int first;
+		/** the index of the next child to be written */
+		private int next;
+
+		private Constituent(SNode sNode, int[] positions) {
+			this.sNode = sNode;
+			this.positions = positions;
+			this.children = null;
+			this.first = -1;
+			this.next = 0;
+		}
+	}
+
+	/** a dependency between two tokens given by their positions */
+	private static class Dependency {
+		private final int governor;
+		private final int dependent;
+		/** the function of the dependent or null */
+		private final String func;
+
+		private Dependency(int governor, int dependent, String func) {
+			this.governor = governor;
+			this.dependent = dependent;
+			this.func = func;
+		}
+	}
+
+	/** a span of the text structure */
+	private static class TextSpan {
+		/** the positions of the tokens of the span */
+		private final int[] positions;
+		/** the type of the span, e.g. "page" or "line" */
+		private final String type;
+
+		private TextSpan(int[] positions, String type) {
+			this.positions = positions;
+			this.type = type;
+		}
+	}
 }
@@ -17,30 +17,47 @@
  */
 package org.corpus_tools.peppermodules.tcfModules;
 
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.Stack;
 
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
 import org.corpus_tools.pepper.common.DOCUMENT_STATUS;
 import org.corpus_tools.pepper.impl.PepperMapperImpl;
 import org.corpus_tools.pepper.modules.exceptions.PepperModuleDataException;
+import org.corpus_tools.pepper.modules.exceptions.PepperModuleXMLResourceException;
 import org.corpus_tools.salt.SALT_TYPE;
 import org.corpus_tools.salt.SaltFactory;
 import org.corpus_tools.salt.common.SDocumentGraph;
 import org.corpus_tools.salt.common.SPointingRelation;
 import org.corpus_tools.salt.common.SSpan;
 import org.corpus_tools.salt.common.SStructure;
+import org.corpus_tools.salt.common.SStructuredNode;
 import org.corpus_tools.salt.common.STextualDS;
 import org.corpus_tools.salt.common.SToken;
 import org.corpus_tools.salt.core.SAnnotation;
 import org.corpus_tools.salt.core.SLayer;
 import org.corpus_tools.salt.core.SMetaAnnotation;
 import org.corpus_tools.salt.core.SNode;
-import org.corpus_tools.salt.core.SRelation;
 import org.corpus_tools.salt.graph.Label;
 import org.corpus_tools.salt.semantics.SLemmaAnnotation;
 import org.eclipse.emf.common.util.BasicEMap;
 import org.eclipse.emf.common.util.EMap;
+import org.eclipse.emf.common.util.URI;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.xml.sax.Attributes;
@@ -76,20 +93,52 @@ public class TCFMapperImport extends PepperMapperImpl {
 
 	private static final String BAD_TOKENIZATION_ERROR_MESSAGE = "Bad tokenization: Full text not matching token text!";
 
-	private static final String REF_SEPERATOR = "%%%";
 	public static final String ANNO_NAME_CONSTITUENT = "const";
 
 	private static Logger logger = LoggerFactory.getLogger(TCFMapperImport.class);
 
+	/** the listeners notified after the document was imported */
+	private final List<TCFImportListener> importListeners = new ArrayList<TCFImportListener>();
+
+	/**
+	 * registers a listener, which is notified after the document was imported
+	 */
+	public void addImportListener(TCFImportListener listener) {
+		importListeners.add(listener);
+	}
+
 	@Override
 	public DOCUMENT_STATUS mapSDocument() {
 		if (getDocument() == null) {
 			setDocument(SaltFactory.createSDocument());
 		}
+		Object documentEvent = TCFEvents.beginDocument();
 		SDocumentGraph docGraph = SaltFactory.createSDocumentGraph();
 		getDocument().setDocumentGraph(docGraph);
 		TCFReader reader = new TCFReader();
-		this.readXMLResource(reader, getResourceURI());
+		if (((TCFImporterProperties) getProperties()).isUseStAX()) {
+			new TCFStreamReader(reader).read(getResourceURI());
+		} else {
+			this.readXMLResource(reader, getResourceURI());
+		}
+		boolean annotateStatistics = ((TCFImporterProperties) getProperties()).isStatistics();
+		if (annotateStatistics || !importListeners.isEmpty()) {
+			TCFImportStatistics statistics = reader.statistics;
+			statistics.endDocument(docGraph);
+			if (annotateStatistics) {
+				statistics.annotate(getDocument());
+			}
+			for (TCFImportListener listener : importListeners) {
+				try {
+					listener.documentImported(getDocument(), statistics);
+				} catch (RuntimeException e) {
+					logger.warn("Import listener '" + listener + "' failed for document '" + getDocument().getName() + "'.", e);
+				}
+			}
+		}
+		if (documentEvent != null) {
+			TCFEvents.endDocument(documentEvent, getDocument().getId(), TCFEvents.IMPORT, new File(getResourceURI().toFileString()).length(), docGraph.getNodes().size(), docGraph.getRelations().size());
+		}
 		return (DOCUMENT_STATUS.COMPLETED);
 	}
 
@@ -107,15 +156,31 @@ public class TCFMapperImport extends PepperMapperImpl {
 		private EMap<String, SLayer> sLayers;
 		/** contains the currently used {@link STextualDS} */
 		private STextualDS currentSTDS;
-		/** This is the pointer used for the tokenization process. */
-		private int p;
+		/**
+		 * aligns the tokens with the primary text of {@link #currentSTDS}, it
+		 * is created with the first token following the primary text.
+		 */
+		private TokenAligner aligner;
+		/**
+		 * contains all {@link SToken}s in the order of &lt;tc:tokens&gt;, which
+		 * is the order of the primary text. Tokens are not stored in
+		 * {@link #sNodes}.
+		 */
+		private TokenRegistry tokens;
+		/**
+		 * marks the positions of the tokens in {@link #tokens}, which could not
+		 * be aligned with the primary text
+		 */
+		private BitSet skippedTokens;
+		/** collects the references of the current entity */
+		private ReferenceChain references;
 		/**
 		 * contains the path through the xml-document. When a new xml-element
 		 * starts it's local name is put on top.
 		 */
 		private Stack<String> path;
-		/** contains the path through the constituent tree. */
-		private Stack<String> idPath;
+		/** contains the open constituents of the current parse */
+		private ConstituentTree tree;
 		/** is used to store characters written between tags. */
 		private StringBuilder chars;
 		/**
@@ -139,10 +204,13 @@ public class TCFMapperImport extends PepperMapperImpl {
 		private int metaId;
 		/** is used as id prefix when ignoreIds is false. */
 		private static final String REF_PREFIX = "reference-";
+		/** is used to compose the keys of meta annotations */
+		private StringBuilder metaKey;
 		/**
-		 * is used as separator between the levels of the meta annotation keys.
+		 * contains the values of meta annotations, which are collected from
+		 * several elements
 		 */
-		private static final String CLN = ":";
+		private Map<String, StringBuilder> metaValues;
 		/**
 		 * is the marking element for span Ids over single tokens to store them
 		 * in sNodes without overwriting the {@link SToken}s.
@@ -161,6 +229,20 @@ public class TCFMapperImport extends PepperMapperImpl {
 		private boolean ignoreIds;
 
 		private List<SNode> trashList;
+		/**
+		 * contains the layers to be imported or is null, if all layers are to
+		 * be imported
+		 */
+		private Set<TCFElement> layers;
+		/**
+		 * is the depth inside the subtree of a layer, which is not imported. It
+		 * is 0, if the current element is not part of such a subtree.
+		 */
+		private int skipDepth;
+		/** collects the time spent in each layer and the created elements */
+		private TCFImportStatistics statistics;
+		/** the flight recorder event of the current layer or null */
+		private Object layerEvent;
 
 		public TCFReader() {
 			super();
@@ -168,695 +250,1110 @@ public class TCFMapperImport extends PepperMapperImpl {
 			labels = new BasicEMap<String, Label>();
 			sLayers = new BasicEMap<String, SLayer>();
 			path = new Stack<String>();
-			idPath = new Stack<String>();
+			tree = new ConstituentTree();
 			chars = new StringBuilder();
+			metaKey = new StringBuilder();
+			metaValues = new HashMap<String, StringBuilder>();
 			currentNodeID = null;
 			currentSNode = null;
 			currentAnnoID = null;
 			currentAnnoKey = null;
-			p = 0;
+			aligner = null;
+			tokens = new TokenRegistry();
+			skippedTokens = new BitSet();
+			references = new ReferenceChain();
 			shrinkTokenAnnotations = ((TCFImporterProperties) getProperties()).isShrinkTokenAnnotation();
 			useCommonAnnotatedElement = ((TCFImporterProperties) getProperties()).isUseCommonAnnotatedElement();
 			ignoreIds = false;
 			id = 0;
 			metaId = 0;
 			trashList = new ArrayList<SNode>();
+			layers = null;
+			Set<String> layerNames = ((TCFImporterProperties) getProperties()).getLayers();
+			if (!layerNames.isEmpty()) {
+				layers = EnumSet.of(TCFElement.TEXT, TCFElement.TOKENS);
+				for (String layerName : layerNames) {
+					TCFElement layer = TCFElement.forLayerName(layerName);
+					if (layer == null) {
+						logger.warn("Cannot find a TCF layer '" + layerName + "' given in property '" + TCFImporterProperties.PROP_LAYERS + "', it is ignored.");
+					} else {
+						layers.add(layer);
+					}
+				}
+				if (layers.contains(TCFElement.SYNONYMY) || layers.contains(TCFElement.ANTONYMY) || layers.contains(TCFElement.HYPONYMY) || layers.contains(TCFElement.HYPERONYMY)) {
+					/* lexical-semantic relations are annotated at the lemmas */
+					layers.add(TCFElement.LEMMAS);
+				}
+			}
+			skipDepth = 0;
+			/* the annotations per layer are only counted, if they are read */
+			statistics = new TCFImportStatistics(((TCFImporterProperties) getProperties()).isStatistics() || !importListeners.isEmpty());
+			layerEvent = null;
+		}
+
+		/**
+		 * @return true, if the time spent in the given element is recorded
+		 *         separately, which is the case for layers and the meta data
+		 */
+		private boolean isTimed(TCFElement element) {
+			return element.isLayer() || element == TCFElement.METADATA;
+		}
+
+		/**
+		 * This method starts the clock of the given element, if it is timed,
+		 * or counts it as an element of the current layer otherwise.
+		 */
+		private void startLayer(TCFElement element) {
+			if (isTimed(element)) {
+				statistics.startLayer(element.getName(), getSDocGraph());
+				layerEvent = TCFEvents.beginLayer();
+			} else {
+				statistics.countElement();
+			}
+		}
+
+		/** This method stops the clock of the given element, if it is timed. */
+		private void endLayer(TCFElement element) {
+			if (isTimed(element)) {
+				int elements = statistics.endLayer(getSDocGraph());
+				if (layerEvent != null) {
+					TCFEvents.endLayer(layerEvent, getDocument().getId(), TCFEvents.IMPORT, element.getName(), 0, elements);
+					layerEvent = null;
+				}
+			}
+		}
+
+		/**
+		 * @return true, if the given element is not a layer or it is a layer
+		 *         to be imported
+		 */
+		private boolean isImported(TCFElement element) {
+			return !element.isLayer() || layers == null || layers.contains(element);
 		}
 
 		@Override
 		public void startElement(String uri, String localName, String qName, Attributes attributes) throws SAXException {
+			if (skipDepth > 0) {
+				skipDepth++;
+				return;
+			}
 			localName = qName.substring(qName.lastIndexOf(":") + 1);
+			TCFElement element = TCFElement.forName(localName);
+			if (element != null && !isImported(element)) {
+				skipDepth = 1;
+				return;
+			}
 			path.push(localName);
-
-			if (TAG_TC_CONSTITUENT.equals(localName)) {
-				String constID = attributes.getValue(ATT_ID);
-				if (!ignoreIds) {
-					ignoreIds = (constID == null);
-				}
-				if (ignoreIds) {
-					constID = Integer.toString(id++);
-				}
-				/*
-				 * are we dealing with a potential SToken (sequence) or a
-				 * potential SStructure?
-				 */
-				String tokenIDs = attributes.getValue(ATT_TOKENIDS);
-				if (tokenIDs == null) {
-					/* SStructure */
-					SStructure sStruc = SaltFactory.createSStructure();
-					sStruc.createAnnotation(LAYER_CONSTITUENTS, ATT_CAT, attributes.getValue(ATT_CAT));
-					store(constID, sStruc);
-					sStruc.addLayer(sLayers.get(LAYER_CONSTITUENTS));
-					if (idPath.empty()) {
-						/* sStruc is root */
-						getSDocGraph().addNode(sStruc);
-					} else {
-						getSDocGraph().addNode(sNodes.get(idPath.peek()), sStruc, SALT_TYPE.SDOMINANCE_RELATION);
-					}
-					idPath.push(constID);
-				} else {
-					/* tokens/spans */
-					SNode sNode = sNodes.get(tokenIDs);
-					if (tokenIDs.contains(" ")) {
-						/* span */
-						if (sNode == null) {
-							String[] seq = tokenIDs.split(" ");
-							List<SToken> sTokensForSpan = new ArrayList<SToken>();
-							for (int i = 0; i < seq.length; i++) {
-								sTokensForSpan.add((SToken) sNodes.get(seq[i]));
-							}
-							sNode = getSDocGraph().createSpan(sTokensForSpan);
-							if (useCommonAnnotatedElement) {
-								store(tokenIDs, sNode);
-							} // store node, if spans should be reused
-						}
-						sNode.createAnnotation(LAYER_CONSTITUENTS, ATT_CAT, attributes.getValue(ATT_CAT));
-						getSDocGraph().addNode(sNodes.get(idPath.peek()), sNode, SALT_TYPE.SDOMINANCE_RELATION);
-						/*
-						 * we HAVE TO push also tokens/spans onto the stack to
-						 * avoid that at the end of their xml-element the wrong
-						 * constituent is popped off the stack
-						 */
-						idPath.push(tokenIDs);
-					} else {
-						/* single token */
-						if (shrinkTokenAnnotations) {
-							sNode = (SToken) sNodes.get(tokenIDs);
-						} else {
-							sNode = sNodes.get(tokenIDs + SPAN);
-							if (sNode == null) {
-								sNode = getSDocGraph().createSpan((SToken) sNodes.get(tokenIDs));
-								if (useCommonAnnotatedElement) {
-									store(tokenIDs + SPAN, sNode);
-								} // store node, if spans should be reused
-							}
-						}
-						annotateSNode(sNode, LAYER_CONSTITUENTS, ATT_CAT, attributes.getValue(ATT_CAT), false, false);
-						getSDocGraph().addNode(sNodes.get(idPath.peek()), sNode, SALT_TYPE.SDOMINANCE_RELATION);
-						/*
-						 * we HAVE TO push also tokens onto the stack to avoid
-						 * that at the end of their xml-element the wrong
-						 * constituent is popped off the stack
-						 */
-						/*
-						 * so the pushed id is actually just a dummy -> we don't
-						 * have to check, if the span should be pushed
-						 */
-						idPath.push(tokenIDs);
-					}
-				}
-			} else if (TAG_TC_DEPPARSING.equals(localName)) {
-				currentNodeID = null;
-				SLayer depLayer = buildLayer(LAYER_DEPENDENCIES);
-				/* TODO the same has to be done in SaltSample, still undone */
-				/*
-				 * TODO the same has to be done for POS both in
-				 * SaltSample(CHECK) and here
-				 */
-				depLayer.createMetaAnnotation(null, TCFDictionary.ATT_TAGSET, attributes.getValue(TCFDictionary.ATT_TAGSET));
-				// depLayer.createMetaAnnotation(null,
-				// TCFDictionary.ATT_EMPTYTOKS,
-				// attributes.getValue(TCFDictionary.ATT_EMPTYTOKS));
-				// depLayer.createMetaAnnotation(null,
-				// TCFDictionary.ATT_MULTIGOVS,
-				// attributes.getValue(TCFDictionary.ATT_MULTIGOVS));
-			} else if (TAG_TC_PARSE.equals(localName)) {
-				idPath.clear(); // relevant for constituent parsing
-			} else if (TAG_TC_DEPENDENCY.equals(localName)) {
-				/*
-				 * is there no governing ID, we skip, because we don't use a
-				 * root node
-				 */
-				SDocumentGraph graph = getSDocGraph();
-				if (attributes.getValue(ATT_GOVIDS) != null) {
-					SPointingRelation depRel = (SPointingRelation) graph.addNode(sNodes.get(attributes.getValue(ATT_GOVIDS)), sNodes.get(attributes.getValue(ATT_DEPIDS)), SALT_TYPE.SPOINTING_RELATION);
-					depRel.createAnnotation(LAYER_DEPENDENCIES, ATT_FUNC, attributes.getValue(ATT_FUNC)); // TODO
-																											// write
-																											// into
-																											// documentation,
-																											// how
-																											// I
-																											// use
-																											// namespaces
-					depRel.addLayer(sLayers.get(LAYER_DEPENDENCIES));
-					depRel.setType(STYPE_DEPENDENCY);
-				}
-			} else if (TAG_TC_SENTENCES.equals(localName)) {
+			if (element == null) {
+				statistics.countElement();
+				return;
+			}
+			startLayer(element);
+			switch (element) {
+			case CONSTITUENT:
+				startConstituent(attributes);
+				break;
+			case DEPPARSING:
+				startDepparsing(attributes);
+				break;
+			case PARSE:
+				tree.startParse(); // relevant for constituent parsing
+				break;
+			case DEPENDENCY:
+				startDependency(attributes);
+				break;
+			case SENTENCES:
 				buildLayer(LAYER_SENTENCES);
-			} else if (TAG_MD_METADATA.equals(localName)) {
-			} else if (TAG_TC_TEXTCORPUS.equals(localName)) {
-				annotateSNode(getDocument(), null, ATT_LANG, attributes.getValue(ATT_LANG), false, true);
-				/* work-around to get document name: */
-				annotateSNode(getDocument(), null, "document", getDocument().getName(), false, true);
-			} else if (TAG_TC_LEMMA.equals(localName)) {
-				if (chars.length() > 0) {
-					chars.delete(0, chars.length());
-				}
-				currentNodeID = attributes.getValue(TCFDictionary.ATT_TOKENIDS);
-				currentAnnoID = attributes.getValue(TCFDictionary.ATT_ID);
-				SNode sNode = getNode(currentNodeID);
-				sNode.addLayer(sLayers.get(LAYER_LEMMA));
-				currentSNode = sNode;
-			} else if (TAG_TC_TEXT.equals(localName)) {
-				STextualDS primaryText = SaltFactory.createSTextualDS();
-				if (chars.length() > 0) {
-					chars.delete(0, chars.length());
-				}
-				currentSTDS = primaryText;
-				getSDocGraph().addNode(primaryText);
-				/* reset pointer */
-				p = 0;
-			} else if (TAG_TC_TOKEN.equals(localName)) {
-				currentNodeID = attributes.getValue(TCFDictionary.ATT_ID);
-				if (chars.length() > 0) {
-					chars.delete(0, chars.length());
-				}
-			} else if (TAG_TC_LEMMAS.equals(localName)) {
+				break;
+			case TEXTCORPUS:
+				startTextCorpus(attributes);
+				break;
+			case LEMMA:
+				startLemma(attributes);
+				break;
+			case TEXT:
+				startText();
+				break;
+			case TOKEN:
+				startToken(attributes);
+				break;
+			case LEMMAS:
 				buildLayer(LAYER_LEMMA);
-			} else if (TAG_TC_SENTENCE.equals(localName)) {
-				String[] seq = attributes.getValue(ATT_TOKENIDS).split(" ");
-				List<SToken> sentenceTokens = new ArrayList<SToken>();
-				for (int i = 0; i < seq.length; i++) {
-					sentenceTokens.add((SToken) sNodes.get(seq[i]));
-				}
-				SSpan sentenceSpan = getSDocGraph().createSpan(sentenceTokens);
-				String att = attributes.getValue(ATT_ID);
-				store(att, sentenceSpan);
-				annotateSNode(sentenceSpan, null, TAG_TC_SENTENCE, TAG_TC_SENTENCE, false, false);
-				sentenceSpan.addLayer(sLayers.get(LAYER_SENTENCES));
-			} else if (TAG_MD_SERVICES.equals(localName)) {
-			} else if (TAG_TOOLCHAIN.equals(localName)) {
+				break;
+			case SENTENCE:
+				startSentence(attributes);
+				break;
+			case TOOLCHAIN:
 				metaId = 0;
-				annotateSNode(getDocument(), null, (new StringBuilder()).append(TAG_WEBSERVICETOOLCHAIN).append(CLN).append(TAG_TOOLCHAIN).append(CLN).append(ATT_COMPONENTID).toString(), attributes.getValue(ATT_COMPONENTID), false, true);
-			} else if (TAG_TC_TAG.equals(localName)) {
+				annotateSNode(getDocument(), null, TCFMetaKeys.TOOLCHAIN_COMPONENTID, attributes.getValue(ATT_COMPONENTID), false, true);
+				break;
+			case TAG:
 				/*
 				 * first check, if we are really in postags and not in
 				 * morphology (both use tag "tag"). tag in morphology does not
 				 * contain attributes.
 				 */
 				path.pop();
-				if (chars.length() > 0) {
-					chars.delete(0, chars.length());
-				}
-				if (/* attributes.getValue(ATT_TOKENIDS)!=null */TAG_TC_POSTAGS.equals(path.peek())) {
-					/* build node for pos annotation */
-					currentNodeID = attributes.getValue(ATT_TOKENIDS);
-					currentAnnoID = attributes.getValue(ATT_ID);
-					SNode sNode = getNode(currentNodeID);
-					sNode.addLayer(sLayers.get(LAYER_POS));
-					currentSNode = sNode;
+				chars.setLength(0);
+				if (TAG_TC_POSTAGS.equals(path.peek())) {
+					startPOSTag(attributes);
 				} else if (TAG_TAGS.equals(path.peek())) {
-					metaId++;
-					chars.delete(0, chars.length());
-					annotateSNode(getDocument(), null, (new StringBuilder()).append(TAG_WEBSERVICETOOLCHAIN).append(CLN).append(TAG_GENERALINFO).append(CLN).append(TAG_TAG).append(metaId).append(CLN).append(ATT_LANG).toString(), attributes.getValue(ATT_LANG), false, true);
-				}
-			} else if (TAG_TC_POSTAGS.equals(localName)) {
-				SLayer posLayer = buildLayer(LAYER_POS);
-				if (attributes.getValue(ATT_TAGSET) != null) {
-					posLayer.createMetaAnnotation(null, ATT_TAGSET, attributes.getValue(ATT_TAGSET));
-				}
-			} else if (TAG_RESOURCES.equals(localName)) {
-			} else if (TAG_TC_ANALYSIS.equals(localName)) {
-				currentNodeID = attributes.getValue(ATT_TOKENIDS);
-				SNode sNode = getNode(currentNodeID);
-				sNode.addLayer(sLayers.get(LAYER_TCF_MORPHOLOGY));
-				currentSNode = sNode;
-			} else if (TAG_TC_F.equals(localName)) {
-				if (chars.length() > 0) {
-					chars.delete(0, chars.length());
+					startMetaTag(attributes);
 				}
-				currentAnnoKey = attributes.getValue(ATT_NAME);
-			} else if (TAG_TC_SEGMENT.equals(localName)) {
-				if (chars.length() > 0) {
-					chars.delete(0, chars.length());
-				}
-				annotateSNode(currentSNode, TAG_TC_SEGMENT, ATT_TYPE, attributes.getValue(ATT_TYPE), false, false);
-			} else if (TAG_TC_MORPHOLOGY.equals(localName)) {
-				SLayer tcfMorphLayer = SaltFactory.createSLayer();
-				tcfMorphLayer.setName(LAYER_TCF_MORPHOLOGY);
-				getSDocGraph().addLayer(tcfMorphLayer);
-				sLayers.put(LAYER_TCF_MORPHOLOGY, tcfMorphLayer);
-			} else if (TAG_TC_REFERENCES.equals(localName)) {
-				id = 0; // we might have used it in meta data (actually the
-						// start value doesn't matter here)
-				ignoreIds = false;
-				currentNodeID = null;
-				SLayer refLayer = buildLayer(LAYER_REFERENCES);
-				if (attributes.getValue(ATT_TYPETAGSET) != null) {
-					refLayer.createMetaAnnotation(null, ATT_TYPETAGSET, attributes.getValue(ATT_TYPETAGSET));
-				}
-				if (attributes.getValue(ATT_RELTAGSET) != null) {
-					refLayer.createMetaAnnotation(null, ATT_RELTAGSET, attributes.getValue(ATT_TYPETAGSET));
-				}
-			} else if (TAG_TC_ENTITY.equals(localName)) {
+				break;
+			case POSTAGS:
+				startPOSTags(attributes);
+				break;
+			case ANALYSIS:
+				startAnalysis(attributes);
+				break;
+			case F:
+				startF(attributes);
+				break;
+			case SEGMENT:
+				startSegment(attributes);
+				break;
+			case MORPHOLOGY:
+				startMorphology();
+				break;
+			case REFERENCES:
+				startReferences(attributes);
+				break;
+			case ENTITY:
 				path.pop();
 				if (path.peek().equals(TAG_TC_NAMEDENTITIES)) {
-					currentNodeID = attributes.getValue(ATT_TOKENIDS);
-					SNode sNode = getNode(currentNodeID);
-					/* annotate */
-					annotateSNode(sNode, LAYER_NE, ATT_CLASS, attributes.getValue(ATT_CLASS), false, false);
-					/* add to layer */
-					sNode.addLayer(sLayers.get(LAYER_NE));
+					startNamedEntity(attributes);
 				} else if (path.peek().equals(TAG_TC_REFERENCES)) {
-					currentSNode = null;
-					idPath.clear();
-				}
-			} else if (TAG_TC_REFERENCE.equals(localName)) {
-				if (!ignoreIds) {
-					ignoreIds = (attributes.getValue(ATT_ID).equals(currentNodeID));
+					startReferenceEntity();
 				}
-				StringBuilder ref = new StringBuilder();
-				/* id of reference: */
-				currentNodeID = ignoreIds ? REF_PREFIX + id++ : attributes.getValue(ATT_ID);
-				currentSNode = getNode(attributes.getValue(ATT_TOKENIDS));
-				/* annotate */
-				// references can be used in several entities, e.g. "them" with
-				// "her" and "him", therefore the annotation could already exist
-				annotateSNode(currentSNode, LAYER_REFERENCES, ATT_TYPE, attributes.getValue(ATT_TYPE), false, false);
-				store(currentNodeID, currentSNode);// map with reference id --
-													// only used with
-													// ignoreIds==false
-				currentSNode.addLayer(sLayers.get(LAYER_REFERENCES));
-
-				/*
-				 * put references on stack to build them later (if it is not the
-				 * mentioning of the antecedent)
-				 */
-
-				if (attributes.getValue(ATT_REL) != null) {// in webanno files
-															// this is false for
-															// the last
-															// reference
-					ref.append(currentSNode.getId()).append(REF_SEPERATOR).append(attributes.getValue(ATT_TARGET)).append(REF_SEPERATOR).append(attributes.getValue(ATT_REL));
-					idPath.push(ref.toString());
-				} else if (ignoreIds) {
-					idPath.push(currentSNode.getId().toString());// target of
-																	// all the
-																	// others
-				}
-			} else if (TAG_TC_NAMEDENTITIES.equals(localName)) {
-				SLayer namedEntities = buildLayer(LAYER_NE);
-				String annoVal = attributes.getValue(ATT_TYPE);
-				if (annoVal != null) {
-					namedEntities.createMetaAnnotation(null, ATT_TYPE, annoVal);
-				}
-			} else if (TAG_TC_PHONETICS.equals(localName)) {
-				SLayer phoLayer = buildLayer(LAYER_PHONETICS);
-				String annoVal = attributes.getValue(ATT_TRANSCRIPTION);
-				if (annoVal != null) {
-					phoLayer.createMetaAnnotation(null, ATT_TRANSCRIPTION, annoVal);
-				}
-			} else if (TAG_TC_PRON.equals(localName)) {
-				chars.delete(0, chars.length());
-				currentNodeID = attributes.getValue(ATT_TOKID);
-				currentSNode = shrinkTokenAnnotations ? (SToken) sNodes.get(currentNodeID) : (useCommonAnnotatedElement ? sNodes.get(currentNodeID + SPAN) : getSDocGraph().createSpan((SToken) sNodes.get(currentNodeID)));
-				if (currentSNode == null) {// only possible if
-											// useCommonAnnotatedElement==true
-					currentSNode = getSDocGraph().createSpan((SToken) sNodes.get(currentNodeID));
-					store(currentNodeID + SPAN, currentSNode);
-				}
-				currentSNode.addLayer(sLayers.get(LAYER_PHONETICS));
-			} else if (TAG_TC_ORTHOGRAPHY.equals(localName)) {
+				break;
+			case REFERENCE:
+				startReference(attributes);
+				break;
+			case NAMEDENTITIES:
+				startNamedEntities(attributes);
+				break;
+			case PHONETICS:
+				startPhonetics(attributes);
+				break;
+			case PRON:
+				startPron(attributes);
+				break;
+			case ORTHOGRAPHY:
 				buildLayer(LAYER_ORTHOGRAPHY);
-			} else if (TAG_TC_CORRECTION.equals(localName)) {
-				chars.delete(0, chars.length());
-				currentNodeID = attributes.getValue(ATT_TOKENIDS);
-				SNode sNode = getNode(currentNodeID);
-				SAnnotation correction = sNode.createAnnotation(LAYER_ORTHOGRAPHY, TAG_TC_CORRECTION, null);
-				String opVal = attributes.getValue(ATT_OPERATION);
-				if (opVal != null) {
-					SAnnotation operation = SaltFactory.createSAnnotation();
-					operation.setName(ATT_OPERATION);
-					operation.setNamespace(LAYER_ORTHOGRAPHY);
-					operation.setValue(attributes.getValue(ATT_OPERATION));
-					correction.addLabel(operation);
-				}
-				sNode.addLayer(sLayers.get(LAYER_ORTHOGRAPHY));
-				currentSNode = sNode;
-			} else if (TAG_TC_GEO.equals(localName)) {// only once allowed
-				SLayer geoLayer = buildLayer(LAYER_GEO);
-				for (int i = 0; i < attributes.getLength(); i++) {
-					geoLayer.createMetaAnnotation(null, attributes.getLocalName(i), attributes.getValue(i));
-				}
-			} else if (TAG_TC_SRC.equals(localName)) {// only once in <geo>
-														// allowed (but
-														// obligatory!)
-				chars.delete(0, chars.length());
-			} else if (TAG_TC_GPOINT.equals(localName)) {// multiple in <geo>
-															// allowed (not
-															// obligatory)
-				SNode sNode = getNode(attributes.getValue(ATT_TOKENIDS));
-				/* annotate */
-				annotateSNode(sNode, LAYER_GEO, ATT_ALT, attributes.getValue(ATT_ALT), false, false);
-				annotateSNode(sNode, LAYER_GEO, ATT_LAT, attributes.getValue(ATT_LAT), false, false);
-				annotateSNode(sNode, LAYER_GEO, ATT_LON, attributes.getValue(ATT_LON), false, false);
-				annotateSNode(sNode, LAYER_GEO, ATT_CONTINENT, attributes.getValue(ATT_CONTINENT), false, false);
-				annotateSNode(sNode, LAYER_GEO, ATT_COUNTRY, attributes.getValue(ATT_COUNTRY), false, false);
-				annotateSNode(sNode, LAYER_GEO, ATT_CAPITAL, attributes.getValue(ATT_CAPITAL), false, false);
-				sNode.addLayer(sLayers.get(LAYER_GEO));
-			} else if (TAG_TC_SYNONYMY.equals(localName) || TAG_TC_ANTONYMY.equals(localName) || TAG_TC_HYPONYMY.equals(localName) || TAG_TC_HYPERONYMY.equals(localName)) {
-				if (!sLayers.containsKey(LAYER_LS)) {
-					buildLayer(LAYER_LS);
-				}
-			} else if (TAG_TC_ORTHFORM.equals(localName)) {
+				break;
+			case CORRECTION:
+				startCorrection(attributes);
+				break;
+			case GEO:// only once allowed
+				startGeo(attributes);
+				break;
+			case SRC:// only once in <geo> allowed (but obligatory!)
+				chars.setLength(0);
+				break;
+			case GPOINT:// multiple in <geo> allowed (not obligatory)
+				startGPoint(attributes);
+				break;
+			case SYNONYMY:
+			case ANTONYMY:
+			case HYPONYMY:
+			case HYPERONYMY:
+				startLexicalSemantics();
+				break;
+			case ORTHFORM:
 				path.pop();
-				chars.delete(0, chars.length());
-				currentAnnoID = attributes.getValue(ATT_LEMMAREFS);
-				SLemmaAnnotation lemma = (SLemmaAnnotation) labels.get(currentAnnoID);
-				SAnnotation anno = SaltFactory.createSAnnotation();
-				anno.setNamespace(LAYER_LS);
-				anno.setName(path.peek());
-				lemma.addLabel(anno);
-				((SNode) lemma.getContainer()).addLayer(sLayers.get(LAYER_LS));
-			} else if (TAG_TC_WSD.equals(localName)) {
-				buildLayer(LAYER_WORDSENSE);
-				String annoVal = attributes.getValue(ATT_SRC);
-				if (annoVal != null) {
-					sLayers.get(LAYER_WORDSENSE).createMetaAnnotation(null, ATT_SRC, annoVal);
-				}
-			} else if (TAG_TC_WS.equals(localName)) {
-				SNode sNode = getNode(attributes.getValue(ATT_TOKENIDS));
-				annotateSNode(sNode, LAYER_WORDSENSE, ATT_LEXUNITS, attributes.getValue(ATT_LEXUNITS), false, false);
-				annotateSNode(sNode, LAYER_WORDSENSE, ATT_COMMENT, attributes.getValue(ATT_COMMENT), false, false);
-				sNode.addLayer(sLayers.get(LAYER_WORDSENSE));
-			} else if (TAG_TC_WORDSPLITTINGS.equals(localName)) {
-				SLayer splitLayer = buildLayer(LAYER_SPLITTINGS);
-				if (attributes.getValue(ATT_TYPE) != null) {
-					splitLayer.createMetaAnnotation(null, ATT_TYPE, attributes.getValue(ATT_TYPE));
-				}
-			} else if (TAG_TC_SPLIT.equals(localName)) {
-				chars.delete(0, chars.length());
-				currentSNode = getNode(attributes.getValue(ATT_TOKID));
-				currentSNode.addLayer(sLayers.get(LAYER_SPLITTINGS));
-			} else if (TAG_TC_DISCOURSECONNECTIVES.equals(localName)) {
-				SLayer discourseLayer = buildLayer(LAYER_DISCOURSE);
-				String annoVal = attributes.getValue(ATT_TAGSET);
-				if (annoVal != null) {
-					discourseLayer.createMetaAnnotation(null, ATT_TAGSET, annoVal);
-				}
-			} else if (TAG_TC_CONNECTIVE.equals(localName)) {
-				SNode sNode = getNode(attributes.getValue(ATT_TOKENIDS));
-				annotateSNode(sNode, LAYER_DISCOURSE, ATT_TYPE, attributes.getValue(ATT_TYPE), false, false);
-				sNode.addLayer(sLayers.get(LAYER_DISCOURSE));
-			} else if (TAG_TC_TEXTSTRUCTURE.equals(localName)) {
+				startOrthform(attributes, path.peek());
+				break;
+			case WSD:
+				startWsd(attributes);
+				break;
+			case WS:
+				startWs(attributes);
+				break;
+			case WORDSPLITTINGS:
+				startWordSplittings(attributes);
+				break;
+			case SPLIT:
+				startSplit(attributes);
+				break;
+			case DISCOURSECONNECTIVES:
+				startDiscourseConnectives(attributes);
+				break;
+			case CONNECTIVE:
+				startConnective(attributes);
+				break;
+			case TEXTSTRUCTURE:
 				buildLayer(LAYER_TEXTSTRUCTURE);
-			} else if (TAG_TC_TEXTSPAN.equals(localName)) {
-				if (attributes.getValue(ATT_START) != null && attributes.getValue(ATT_END) != null) {
-					SDocumentGraph graph = getSDocGraph();
-					SToken startToken = (SToken) sNodes.get(attributes.getValue(ATT_START));
-					SToken endToken = (SToken) sNodes.get(attributes.getValue(ATT_END));
-					SNode sNode = null;
-					if (startToken.equals(endToken)) {
-						sNode = shrinkTokenAnnotations ? startToken : graph.createSpan(startToken);
-					} else {
-						/* we ignore useCommonAnnotatedElement here */
-						List<SToken> allTokens = graph.getSortedTokenByText();
-						int j = 0;
-						while (j < allTokens.size() && !allTokens.get(j).equals(startToken)) {
-							j++;
-						}
-						sNode = graph.createSpan(startToken);
-						j++;
-						while (j < allTokens.size() && !allTokens.get(j).equals(endToken)) {
-							graph.addNode(sNode, allTokens.get(j), SALT_TYPE.SSPANNING_RELATION);
-							j++;
-						}
-						graph.addNode(sNode, allTokens.get(j), SALT_TYPE.SSPANNING_RELATION);
-					}
-					/* annotate */
-					annotateSNode(sNode, LAYER_TEXTSTRUCTURE, ATT_TYPE, attributes.getValue(ATT_TYPE), false, false);
-					sNode.addLayer(sLayers.get(LAYER_TEXTSTRUCTURE));
-				}
-			} else if (TAG_MDCREATOR.equals(localName) || TAG_MDCREATIONDATE.equals(localName) || TAG_MDSELFLINK.equals(localName) || TAG_MDPROFILE.equals(localName) || TAG_MDCOLLECTIONDISPLAYNAME.equals(localName) || TAG_RELATIONTYPE.equals(localName) || TAG_RES1.equals(localName) || TAG_RES2.equals(localName) || TAG_JOURNALFILEREF.equals(localName) || TAG_RESOURCECLASS.equals(localName) || TAG_TIMECOVERAGE.equals(localName) || TAG_LEGALOWNER.equals(localName) || TAG_GENRE.equals(localName) || TAG_LIFECYCLESTATUS.equals(localName) || TAG_STARTYEAR.equals(localName) || TAG_COMPLETIONYEAR.equals(localName) || TAG_PUBLICATIONDATE.equals(localName) || TAG_LASTUPDATE.equals(localName) || TAG_COUNTRYCODING.equals(localName) || TAG_RESOURCEREF.equals(localName) || TAG_PID.equals(localName)) {
-				chars.delete(0, chars.length());
-			} else if (TAG_RESOURCETYPE.equals(localName)) {
-				chars.delete(0, chars.length());
-				annotateSNode(getDocument(), null, (new StringBuilder()).append(TAG_RESOURCEPROXY).append(metaId).append(TAG_RESOURCETYPE).append(":").append(ATT_MIMETYPE).toString(), attributes.getValue(ATT_MIMETYPE), false, true);
-			} else if (TAG_RESOURCEPROXYLIST.equals(localName)) {
-				chars.delete(0, chars.length());
+				break;
+			case TEXTSPAN:
+				startTextspan(attributes);
+				break;
+			case MDCREATOR:
+			case MDCREATIONDATE:
+			case MDSELFLINK:
+			case MDPROFILE:
+			case MDCOLLECTIONDISPLAYNAME:
+			case RELATIONTYPE:
+			case RES1:
+			case RES2:
+			case JOURNALFILEREF:
+			case RESOURCECLASS:
+			case TIMECOVERAGE:
+			case LEGALOWNER:
+			case GENRE:
+			case LIFECYCLESTATUS:
+			case STARTYEAR:
+			case COMPLETIONYEAR:
+			case PUBLICATIONDATE:
+			case LASTUPDATE:
+			case COUNTRYCODING:
+			case RESOURCEREF:
+			case PID:
+				chars.setLength(0);
+				break;
+			case RESOURCETYPE:
+				chars.setLength(0);
+				annotateSNode(getDocument(), null, metaKey(TAG_RESOURCEPROXY, metaId, TCFMetaKeys.MIMETYPE), attributes.getValue(ATT_MIMETYPE), false, true);
+				break;
+			case RESOURCEPROXYLIST:
+				chars.setLength(0);
 				metaId = 0;
-			} else if (TAG_ISPARTOFLIST.equals(localName) || TAG_RESOURCERELATIONLIST.equals(localName) || TAG_JOURNALFILEPROXYLIST.equals(localName)) {
+				break;
+			case ISPARTOFLIST:
+			case RESOURCERELATIONLIST:
+			case JOURNALFILEPROXYLIST:
 				metaId = 0;
-			} else if (TAG_ISPARTOF.equals(localName)) {
-				chars.delete(0, chars.length());
+				break;
+			case ISPARTOF:
+				chars.setLength(0);
 				metaId++;
-			} else if (TAG_RESOURCERELATION.equals(localName) || TAG_JOURNALFILEPROXY.equals(localName) || TAG_RESOURCEPROXY.equals(localName)) {
+				break;
+			case RESOURCERELATION:
+			case JOURNALFILEPROXY:
+			case RESOURCEPROXY:
 				metaId++;
-			} else if (TAG_DESCRIPTIONS.equals(localName)) {
+				break;
+			case DESCRIPTIONS:
 				metaId = 0;
-				annotateSNode(getDocument(), null, (new StringBuilder()).append(TAG_WEBSERVICETOOLCHAIN).append(CLN).append(TAG_GENERALINFO).append(CLN).append(TAG_DESCRIPTIONS).toString(), attributes.getValue(ATT_COMPONENTID), false, true);
-			} else if (TAG_DESCRIPTION.equals(localName)) {
+				annotateSNode(getDocument(), null, TCFMetaKeys.DESCRIPTIONS, attributes.getValue(ATT_COMPONENTID), false, true);
+				break;
+			case DESCRIPTION:
 				metaId++;
-				chars.delete(0, chars.length());
-				annotateSNode(getDocument(), null, (new StringBuilder()).append(TAG_WEBSERVICETOOLCHAIN).append(CLN).append(TAG_GENERALINFO).append(CLN).append(TAG_DESCRIPTION).append(metaId).append(CLN).append(ATT_TYPE).toString(), attributes.getValue(ATT_TYPE), false, true);
-				annotateSNode(getDocument(), null, (new StringBuilder()).append(TAG_WEBSERVICETOOLCHAIN).append(CLN).append(TAG_GENERALINFO).append(CLN).append(TAG_DESCRIPTION).append(metaId).append(CLN).append(ATT_LANG).toString(), attributes.getValue(ATT_LANG), false, true);
-			} else if (TAG_TC_PARSING.equals(localName)) {
-				currentNodeID = null;
-				ignoreIds = false;
-				SLayer syntaxLayer = buildLayer(LAYER_CONSTITUENTS);
-				syntaxLayer.createMetaAnnotation(null, ATT_TAGSET, attributes.getValue(ATT_TAGSET));
-			} else if (TAG_GENERALINFO.equals(localName)) {
+				chars.setLength(0);
+				annotateSNode(getDocument(), null, metaKey(TCFMetaKeys.DESCRIPTION, metaId, TCFMetaKeys.TYPE), attributes.getValue(ATT_TYPE), false, true);
+				annotateSNode(getDocument(), null, metaKey(TCFMetaKeys.DESCRIPTION, metaId, TCFMetaKeys.LANG), attributes.getValue(ATT_LANG), false, true);
+				break;
+			case PARSING:
+				startParsing(attributes);
+				break;
+			case GENERALINFO:
 				metaId = 0;
-				annotateSNode(getDocument(), null, (new StringBuilder()).append(TAG_WEBSERVICETOOLCHAIN).append(CLN).append(TAG_GENERALINFO).append(CLN).append(ATT_COMPONENTID).toString(), attributes.getValue(ATT_COMPONENTID), false, true);
-			} else if (TAG_RESOURCENAME.equals(localName)) {
-				chars.delete(0, chars.length());
-				annotateSNode(getDocument(), null, (new StringBuilder()).append(TAG_WEBSERVICETOOLCHAIN).append(CLN).append(TAG_GENERALINFO).append(CLN).append(TAG_RESOURCENAME).append(++metaId).append(CLN).append(ATT_LANG).toString(), attributes.getValue(ATT_LANG), false, true);
-			} else if (TAG_RESOURCETITLE.equals(localName)) {
-				chars.delete(0, chars.length());
-				annotateSNode(getDocument(), null, (new StringBuilder()).append(TAG_WEBSERVICETOOLCHAIN).append(CLN).append(TAG_GENERALINFO).append(CLN).append(TAG_RESOURCETITLE).append(++metaId).append(CLN).append(ATT_LANG).toString(), attributes.getValue(ATT_LANG), false, true);
-			} else if (TAG_CMD.equals(localName)) {
+				annotateSNode(getDocument(), null, TCFMetaKeys.GENERAL_INFO_COMPONENTID, attributes.getValue(ATT_COMPONENTID), false, true);
+				break;
+			case RESOURCENAME:
+				chars.setLength(0);
+				annotateSNode(getDocument(), null, metaKey(TCFMetaKeys.RESOURCENAME, ++metaId, TCFMetaKeys.LANG), attributes.getValue(ATT_LANG), false, true);
+				break;
+			case RESOURCETITLE:
+				chars.setLength(0);
+				annotateSNode(getDocument(), null, metaKey(TCFMetaKeys.RESOURCETITLE, ++metaId, TCFMetaKeys.LANG), attributes.getValue(ATT_LANG), false, true);
+				break;
+			case CMD:
 				annotateSNode(getDocument(), null, ATT_CMDVERSION, attributes.getValue(ATT_CMDVERSION), false, true);
-			} else if (TAG_VERSION.equals(localName)) {
-				chars.delete(0, chars.length());
-				annotateSNode(getDocument(), null, (new StringBuilder()).append(TAG_WEBSERVICETOOLCHAIN).append(CLN).append(TAG_GENERALINFO).append(CLN).append(TAG_VERSION).append(CLN).append(ATT_LANG).toString(), attributes.getValue(ATT_LANG), false, true);
-			} else if (TAG_LOCATION.equals(localName)) {
-				annotateSNode(getDocument(), null, (new StringBuilder()).append(TAG_WEBSERVICETOOLCHAIN).append(CLN).append(TAG_GENERALINFO).append(CLN).append(TAG_LOCATION).append(CLN).append(ATT_COMPONENTID).toString(), attributes.getValue(ATT_COMPONENTID), false, true);
-			} else if (TAG_ADDRESS.equals(localName)) {
-				chars.delete(0, chars.length());
-				annotateSNode(getDocument(), null, (new StringBuilder()).append(TAG_WEBSERVICETOOLCHAIN).append(CLN).append(TAG_GENERALINFO).append(CLN).append(TAG_ADDRESS).append(CLN).append(ATT_LANG).toString(), attributes.getValue(ATT_LANG), false, true);
-			} else if (TAG_REGION.equals(localName)) {
-				chars.delete(0, chars.length());
-				annotateSNode(getDocument(), null, (new StringBuilder()).append(TAG_WEBSERVICETOOLCHAIN).append(CLN).append(TAG_GENERALINFO).append(CLN).append(TAG_REGION).append(CLN).append(ATT_LANG).toString(), attributes.getValue(ATT_LANG), false, true);
-			} else if (TAG_CONTINENTNAME.equals(localName)) {
-				chars.delete(0, chars.length());
-				annotateSNode(getDocument(), null, (new StringBuilder()).append(TAG_WEBSERVICETOOLCHAIN).append(CLN).append(TAG_GENERALINFO).append(CLN).append(TAG_CONTINENTNAME).append(CLN).append(ATT_LANG).toString(), attributes.getValue(ATT_LANG), false, true);
-			} else if (TAG_COUNTRYNAME.equals(localName)) {
-				chars.delete(0, chars.length());
-				annotateSNode(getDocument(), null, (new StringBuilder()).append(TAG_WEBSERVICETOOLCHAIN).append(CLN).append(TAG_GENERALINFO).append(CLN).append(TAG_COUNTRY).append(CLN).append(TAG_COUNTRYNAME).append(CLN).append(ATT_LANG).toString(), attributes.getValue(ATT_LANG), false, true);
-			} else if (TAG_COUNTRY.equals(localName)) {
-				annotateSNode(getDocument(), null, (new StringBuilder()).append(TAG_WEBSERVICETOOLCHAIN).append(CLN).append(TAG_GENERALINFO).append(CLN).append(TAG_COUNTRY).append(CLN).append(ATT_COMPONENTID).toString(), attributes.getValue(ATT_COMPONENTID), false, true);
-			} else if (TAG_TAGS.equals(localName)) {
+				break;
+			case VERSION:
+				chars.setLength(0);
+				annotateSNode(getDocument(), null, TCFMetaKeys.VERSION_LANG, attributes.getValue(ATT_LANG), false, true);
+				break;
+			case LOCATION:
+				annotateSNode(getDocument(), null, TCFMetaKeys.LOCATION_COMPONENTID, attributes.getValue(ATT_COMPONENTID), false, true);
+				break;
+			case ADDRESS:
+				chars.setLength(0);
+				annotateSNode(getDocument(), null, TCFMetaKeys.ADDRESS_LANG, attributes.getValue(ATT_LANG), false, true);
+				break;
+			case REGION:
+				chars.setLength(0);
+				annotateSNode(getDocument(), null, TCFMetaKeys.REGION_LANG, attributes.getValue(ATT_LANG), false, true);
+				break;
+			case CONTINENTNAME:
+				chars.setLength(0);
+				annotateSNode(getDocument(), null, TCFMetaKeys.CONTINENTNAME_LANG, attributes.getValue(ATT_LANG), false, true);
+				break;
+			case COUNTRYNAME:
+				chars.setLength(0);
+				annotateSNode(getDocument(), null, TCFMetaKeys.COUNTRYNAME_LANG, attributes.getValue(ATT_LANG), false, true);
+				break;
+			case COUNTRY:
+				annotateSNode(getDocument(), null, TCFMetaKeys.COUNTRY_COMPONENTID, attributes.getValue(ATT_COMPONENTID), false, true);
+				break;
+			case TAGS:
 				metaId = 0;
-				annotateSNode(getDocument(), null, (new StringBuilder()).append(TAG_WEBSERVICETOOLCHAIN).append(CLN).append(TAG_GENERALINFO).append(CLN).append(TAG_TAGS).append(CLN).append(ATT_COMPONENTID).toString(), attributes.getValue(ATT_COMPONENTID), false, true);
-			} else if (TAG_TOOLINCHAIN.equals(localName)) {
+				annotateSNode(getDocument(), null, TCFMetaKeys.TAGS_COMPONENTID, attributes.getValue(ATT_COMPONENTID), false, true);
+				break;
+			case TOOLINCHAIN:
 				metaId++;
 				id = 0; // we use the reference id as parameter id since it is
 						// free for use at this point
-				annotateSNode(getDocument(), null, (new StringBuilder()).append(TAG_WEBSERVICETOOLCHAIN).append(CLN).append(TAG_TOOLCHAIN).append(CLN).append(TAG_TOOLINCHAIN).append(metaId).append(CLN).append(ATT_COMPONENTID).toString(), attributes.getValue(ATT_COMPONENTID), false, true);
-			} else if (TAG_PARAMETER.equals(localName)) {
-				chars.delete(0, chars.length());
+				annotateSNode(getDocument(), null, metaKey(TCFMetaKeys.TOOLINCHAIN, metaId, TCFMetaKeys.COMPONENTID), attributes.getValue(ATT_COMPONENTID), false, true);
+				break;
+			case PARAMETER:
+				chars.setLength(0);
 				id++;
-				annotateSNode(getDocument(), null, (new StringBuilder()).append(TAG_WEBSERVICETOOLCHAIN).append(CLN).append(TAG_TOOLCHAIN).append(CLN).append(TAG_TOOLINCHAIN).append(metaId).append(CLN).append(TAG_PARAMETER).append(id).append(CLN).append(ATT_NAME).toString(), attributes.getValue(ATT_NAME), false, true);
-				annotateSNode(getDocument(), null, (new StringBuilder()).append(TAG_WEBSERVICETOOLCHAIN).append(CLN).append(TAG_TOOLCHAIN).append(CLN).append(TAG_TOOLINCHAIN).append(metaId).append(CLN).append(TAG_PARAMETER).append(id).append(CLN).append(ATT_VALUE).toString(), attributes.getValue(ATT_VALUE), false, true);
+				annotateSNode(getDocument(), null, metaKey(TCFMetaKeys.TOOLINCHAIN, metaId, TCFMetaKeys.PARAMETER, id, TCFMetaKeys.NAME), attributes.getValue(ATT_NAME), false, true);
+				annotateSNode(getDocument(), null, metaKey(TCFMetaKeys.TOOLINCHAIN, metaId, TCFMetaKeys.PARAMETER, id, TCFMetaKeys.VALUE), attributes.getValue(ATT_VALUE), false, true);
+				break;
+			default:
+				break;
 			}
 		}
 
 		@Override
 		public void endElement(java.lang.String uri, String localName, String qName) throws SAXException {
+			if (skipDepth > 0) {
+				skipDepth--;
+				return;
+			}
 			localName = qName.substring(qName.lastIndexOf(":") + 1);
-			if (TAG_TC_CONSTITUENT.equals(localName)) {
-				idPath.pop();
-			} else if (TAG_TC_ENTITY.equals(localName)) {
+			TCFElement element = TCFElement.forName(localName);
+			if (element == null) {
+				return;
+			}
+			switch (element) {
+			case CONSTITUENT:
+				tree.close();
+				break;
+			case PARSE:
+				tree.endParse(getSDocGraph());
+				break;
+			case ENTITY:
 				if (TAG_TC_REFERENCE.equals(path.peek())) {
-					String[] seq = null;
-					SNode target = null;
-					while (!idPath.empty()) {
-						seq = idPath.pop().split(REF_SEPERATOR);
-						if (ignoreIds) {
-							if (seq.length == 1) {// target/antecedent
-								target = getSDocGraph().getNode(seq[0]);
-							} else {// ATTENTION target is supposed to be !=null
-									// (!!!)
-								if (target == null) {
-									logger.info("!--------------------------- WARNING: target of reference not set!");
-								}
-								if (!referenceExists(getSDocGraph().getNode(seq[0]), target)) {
-									SPointingRelation ref = (SPointingRelation) getSDocGraph().addNode(getSDocGraph().getNode(seq[0]), target, SALT_TYPE.SPOINTING_RELATION);
-									ref.setType(STYPE_REFERENCE);
-									ref.createAnnotation(LAYER_REFERENCES, ATT_REL, seq[2]);
-									ref.addLayer(sLayers.get(LAYER_REFERENCES));
-								}
-							}
-						} else {
-							if (seq.length != 1) {// CHECK isn't that always
-													// true?!
-								/* relation on antecedent */
-								if (!(seq[0].equals(seq[1]))) {
-									if (!referenceExists(getSDocGraph().getNode(seq[0]), sNodes.get(seq[1]))) {
-										SPointingRelation ref = (SPointingRelation) getSDocGraph().addNode(getSDocGraph().getNode(seq[0]), sNodes.get(seq[1]), SALT_TYPE.SPOINTING_RELATION);
-										ref.createAnnotation(LAYER_REFERENCES, ATT_REL, seq[2]);
-										ref.setType(STYPE_REFERENCE);
-										ref.addLayer(sLayers.get(LAYER_REFERENCES));
-									}
-								}
-							}
-						}
-					}
-
+					endReferenceEntity();
 				}
-			} else if (TAG_TC_TEXT.equals(localName)) {
-				String oldtext = currentSTDS.getText();
-				currentSTDS.setText(oldtext == null ? chars.toString() : oldtext + chars.toString());
-			} else if (TAG_TC_TAG.equals(localName)) {
-				/* build annotation – only use in POS */
+				break;
+			case TEXT:
+				endText();
+				break;
+			case TAG:
+				/* build annotation of a POS tag or a meta tag */
 				// path is popped after opening tag
 				if (TAG_TC_POSTAGS.equals(path.peek())) {
-					SAnnotation sAnno = SaltFactory.createSPOSAnnotation();
-					sAnno.setValue(chars.toString());
-					currentSNode.addAnnotation(sAnno);
-					labels.put(currentAnnoID, sAnno);
-				}
-				if (TAG_TAGS.equals(localName)) {
-					annotateSNode(getDocument(), null, (new StringBuilder()).append(TAG_WEBSERVICETOOLCHAIN).append(CLN).append(TAG_GENERALINFO).append(CLN).append(TAG_TAG).append(metaId).toString(), chars.toString(), false, true);
-				}
-			} else if (TAG_TC_F.equals(localName)) {
-				/* build annotation */
-				annotateSNode(currentSNode, LAYER_TCF_MORPHOLOGY, currentAnnoKey, chars.toString(), false, false);
-			} else if (TAG_TC_LEMMA.equals(localName)) {
-				/* build annotation */
-				SAnnotation anno = SaltFactory.createSLemmaAnnotation();
-				anno.setValue(chars.toString());
-				currentSNode.addAnnotation(anno);
-				labels.put(currentAnnoID, anno);
-			} else if (TAG_TC_TOKEN.equals(localName)) {
-				/* build token */
-				int old_p = p;
-				String primaryData = currentSTDS.getText();
-				String tok = chars.toString();
-				int lookAhead = (primaryData.substring(p).length() - primaryData.substring(p).trim().length()) + 1;
-				while (p < primaryData.length() && (p - old_p) <= lookAhead && !primaryData.substring(p).startsWith(tok)) {
-					p++;
-				}
-				if (p == primaryData.length() || (p - old_p) > lookAhead) {
-					logger.warn("WARNING: Skipped token [".concat(tok).concat("] (ID=").concat(currentNodeID).concat("), it could not be found in the base text. This might lead to further errors in processing the document."));
-					p = old_p;
-					SToken emptyToken = SaltFactory.createSToken();// we'll need
-																	// that for
-																	// annotations
-					getSDocGraph().addNode(emptyToken);
-					store(currentNodeID, emptyToken);
-					trashList.add(emptyToken);
-				} else {
-					store(currentNodeID, getSDocGraph().createToken(currentSTDS, p, p + tok.length()));
-					p += tok.length();
+					endPOSTag();
+				} else if (TAG_TAGS.equals(path.peek())) {
+					annotateSNode(getDocument(), null, metaKey(TCFMetaKeys.TAG, metaId, ""), chars.toString(), false, true);
 				}
-			} else if (TAG_TC_SEGMENT.equals(localName)) {
+				break;
+			case F:
+				endF();
+				break;
+			case LEMMA:
+				endLemma();
+				break;
+			case TOKEN:
+				endToken();
+				break;
+			case SEGMENT:
 				/* build annotation TODO */
 				// currentSNode.createAnnotation(TAG_TC_SEGMENT, TAG_TC_SEGMENT,
 				// chars.toString());
-			} else if (TAG_TC_TOKENS.equals(localName)) {
-			} else if (TAG_TC_PRON.equals(localName)) {
-				currentSNode.createAnnotation(LAYER_PHONETICS, TAG_TC_PRON, chars.toString());
-			} else if (TAG_TC_CORRECTION.equals(localName)) {
-				currentSNode.getAnnotation(LAYER_ORTHOGRAPHY + "::" + TAG_TC_CORRECTION).setValue(chars.toString());
-			} else if (TAG_TC_SRC.equals(localName)) {
-				sLayers.get(LAYER_GEO).createMetaAnnotation(null, TAG_TC_SRC, chars.toString());
-			} else if (TAG_TC_ORTHFORM.equals(localName)) {
-				labels.get(currentAnnoID).getLabel(LAYER_LS, path.peek()).setValue(chars.toString());
-			} else if (TAG_TC_SPLIT.equals(localName)) {
-				currentSNode.createAnnotation(LAYER_SPLITTINGS, TAG_TC_SPLIT, chars.toString());
-			} else if (TAG_MDCREATOR.equals(localName)) {
+				break;
+			case PRON:
+				endPron();
+				break;
+			case CORRECTION:
+				endCorrection();
+				break;
+			case SRC:
+				endSrc();
+				break;
+			case ORTHFORM:
+				endOrthform(path.peek());
+				break;
+			case SPLIT:
+				endSplit();
+				break;
+			case MDCREATOR:
 				if (chars.length() > 0) {
-					SMetaAnnotation meta = getDocument().getMetaAnnotation(TAG_MDCREATOR);
-					if (meta != null) {
-						meta.setValue(meta.getValue().toString() + "; " + chars.toString());
+					appendMetaValue(TAG_MDCREATOR);
+				}
+				break;
+			case MDCREATIONDATE:
+			case MDSELFLINK:
+			case MDPROFILE:
+			case MDCOLLECTIONDISPLAYNAME:
+				if (chars.length() > 0) {
+					getDocument().createMetaAnnotation(null, localName, chars.toString());
+				}
+				break;
+			case TEXTCORPUS:
+				endTextCorpus();
+				break;
+			case RESOURCETYPE:
+				annotateSNode(getDocument(), null, metaKey(TAG_RESOURCEPROXY, metaId, TAG_RESOURCETYPE), chars.toString(), false, true);
+				break;
+			case RESOURCEREF:
+				annotateSNode(getDocument(), null, metaKey(TAG_RESOURCEPROXY, metaId, TAG_RESOURCEREF), chars.toString(), false, true);
+				break;
+			case JOURNALFILEREF:
+				annotateSNode(getDocument(), null, metaKey(TAG_JOURNALFILEPROXY, metaId, ""), chars.toString(), false, true);
+				break;
+			case RELATIONTYPE:
+				annotateSNode(getDocument(), null, metaKey(TAG_RESOURCERELATION, metaId, TCFMetaKeys.RELATIONTYPE), chars.toString(), false, true);
+				break;
+			case RES1:
+				annotateSNode(getDocument(), null, metaKey(TAG_RESOURCERELATION, metaId, TCFMetaKeys.RES1), chars.toString(), false, true);
+				break;
+			case RES2:
+				annotateSNode(getDocument(), null, metaKey(TAG_RESOURCERELATION, metaId, TCFMetaKeys.RES2), chars.toString(), false, true);
+				break;
+			case ISPARTOF:
+				annotateSNode(getDocument(), null, metaKey(TCFMetaKeys.ISPARTOF, metaId, ""), chars.toString(), false, true);
+				break;
+			case RESOURCENAME:
+				annotateSNode(getDocument(), null, metaKey(TCFMetaKeys.RESOURCENAME, metaId, ""), chars.toString(), false, true);
+				break;
+			case RESOURCETITLE:
+				annotateSNode(getDocument(), null, metaKey(TCFMetaKeys.RESOURCETITLE, metaId, ""), chars.toString(), false, true);
+				break;
+			case VERSION:
+			case LIFECYCLESTATUS:
+			case STARTYEAR:
+			case COMPLETIONYEAR:
+			case PUBLICATIONDATE:
+			case LASTUPDATE:
+				annotateSNode(getDocument(), null, TCFMetaKeys.getValueKey(element), chars.toString(), false, true);
+				break;
+			case TIMECOVERAGE:
+			case LEGALOWNER:
+			case GENRE:
+			case ADDRESS:
+			case REGION:
+			case CONTINENTNAME:
+			case COUNTRYNAME:
+			case COUNTRYCODING:
+				appendMetaValue(TCFMetaKeys.getValueKey(element));
+				break;
+			case DESCRIPTION:
+				annotateSNode(getDocument(), null, metaKey(TCFMetaKeys.DESCRIPTION, metaId, ""), chars.toString(), false, true);
+				break;
+			case PID:
+				annotateSNode(getDocument(), null, metaKey(TCFMetaKeys.TOOLINCHAIN, metaId, TCFMetaKeys.PID), chars.toString(), false, true);
+				break;
+			case PARAMETER:
+				annotateSNode(getDocument(), null, metaKey(TCFMetaKeys.TOOLINCHAIN, metaId, TCFMetaKeys.PARAMETER, id, ""), chars.toString(), false, true);
+				break;
+			default:
+				break;
+			}
+			endLayer(element);
+		}
+
+		@Override
+		public void endDocument() throws SAXException {
+			flushMetaValues();
+		}
+
+		/**
+		 * This method appends the collected characters to the meta annotation
+		 * with the given key, which is used for meta data elements, that may
+		 * occur several times. The values are collected in
+		 * {@link #metaValues} and joined by {@link #flushMetaValues()}.
+		 * 
+		 * @param qN
+		 *            is the qualified name of the meta annotation
+		 */
+		private void appendMetaValue(String qN) {
+			StringBuilder value = metaValues.get(qN);
+			if (value != null) {
+				value.append("; ").append(chars);
+			} else {
+				SMetaAnnotation meta = getDocument().getMetaAnnotation(qN);
+				if (meta != null) {
+					metaValues.put(qN, new StringBuilder(meta.getValue().toString()).append("; ").append(chars));
+				} else if (annotateSNode(getDocument(), null, qN, chars.toString(), false, true) != null) {
+					metaValues.put(qN, new StringBuilder(chars));
+				}
+			}
+		}
+
+		/**
+		 * This method sets the values collected by
+		 * {@link #appendMetaValue(String)} at the meta annotations of the
+		 * document.
+		 */
+		private void flushMetaValues() {
+			for (Map.Entry<String, StringBuilder> entry : metaValues.entrySet()) {
+				getDocument().getMetaAnnotation(entry.getKey()).setValue(entry.getValue().toString());
+			}
+			metaValues.clear();
+		}
+
+		/**
+		 * This method composes the key of a meta annotation containing a
+		 * running number.
+		 */
+		private String metaKey(String prefix, int index, String suffix) {
+			metaKey.setLength(0);
+			return metaKey.append(prefix).append(index).append(suffix).toString();
+		}
+
+		/**
+		 * This method composes the key of a meta annotation containing two
+		 * running numbers.
+		 */
+		private String metaKey(String prefix, int index, String infix, int index2, String suffix) {
+			metaKey.setLength(0);
+			return metaKey.append(prefix).append(index).append(infix).append(index2).append(suffix).toString();
+		}
+
+		/* start and end handlers of the text corpus elements */
+
+		private void startTextCorpus(Attributes attributes) {
+			annotateSNode(getDocument(), null, ATT_LANG, attributes.getValue(ATT_LANG), false, true);
+			/* work-around to get document name: */
+			annotateSNode(getDocument(), null, "document", getDocument().getName(), false, true);
+		}
+
+		private void endTextCorpus() {
+			for (SNode sNode : trashList) {
+				getSDocGraph().removeNode(sNode);
+			}
+		}
+
+		private void startText() {
+			STextualDS primaryText = SaltFactory.createSTextualDS();
+			chars.setLength(0);
+			currentSTDS = primaryText;
+			getSDocGraph().addNode(primaryText);
+			/* reset pointer */
+			aligner = null;
+		}
+
+		private void endText() {
+			String oldtext = currentSTDS.getText();
+			currentSTDS.setText(oldtext == null ? chars.toString() : oldtext + chars.toString());
+			aligner = null;
+		}
+
+		private void startToken(Attributes attributes) {
+			currentNodeID = attributes.getValue(TCFDictionary.ATT_ID);
+			chars.setLength(0);
+		}
+
+		private void endToken() {
+			/* build token */
+			if (aligner == null) {
+				aligner = new TokenAligner(currentSTDS.getText());
+			}
+			int start = aligner.align(chars);
+			if (start < 0) {
+				logger.warn("WARNING: Skipped token [".concat(chars.toString()).concat("] (ID=").concat(currentNodeID).concat("), it could not be found in the base text. This might lead to further errors in processing the document."));
+				TCFEvents.skippedToken(getDocument().getId(), currentNodeID, chars, aligner.getPosition());
+				SToken emptyToken = SaltFactory.createSToken();// we'll need
+																// that for
+																// annotations
+				getSDocGraph().addNode(emptyToken);
+				skippedTokens.set(storeToken(currentNodeID, emptyToken));
+				trashList.add(emptyToken);
+			} else {
+				storeToken(currentNodeID, getSDocGraph().createToken(currentSTDS, start, aligner.getPosition()));
+			}
+		}
+
+		private void startSentence(Attributes attributes) {
+			String[] seq = attributes.getValue(ATT_TOKENIDS).split(" ");
+			List<SToken> sentenceTokens = new ArrayList<SToken>();
+			for (int i = 0; i < seq.length; i++) {
+				sentenceTokens.add((SToken) getStored(seq[i]));
+			}
+			SSpan sentenceSpan = getSDocGraph().createSpan(sentenceTokens);
+			String att = attributes.getValue(ATT_ID);
+			store(att, sentenceSpan);
+			annotateSNode(sentenceSpan, null, TAG_TC_SENTENCE, TAG_TC_SENTENCE, false, false);
+			sentenceSpan.addLayer(sLayers.get(LAYER_SENTENCES));
+		}
+
+		private void startPOSTags(Attributes attributes) {
+			SLayer posLayer = buildLayer(LAYER_POS);
+			if (attributes.getValue(ATT_TAGSET) != null) {
+				posLayer.createMetaAnnotation(null, ATT_TAGSET, attributes.getValue(ATT_TAGSET));
+			}
+		}
+
+		private void startPOSTag(Attributes attributes) {
+			/* build node for pos annotation */
+			currentNodeID = attributes.getValue(ATT_TOKENIDS);
+			currentAnnoID = attributes.getValue(ATT_ID);
+			SNode sNode = getNode(currentNodeID);
+			sNode.addLayer(sLayers.get(LAYER_POS));
+			currentSNode = sNode;
+		}
+
+		private void endPOSTag() {
+			SAnnotation sAnno = SaltFactory.createSPOSAnnotation();
+			sAnno.setValue(chars.toString());
+			currentSNode.addAnnotation(sAnno);
+			labels.put(currentAnnoID, sAnno);
+		}
+
+		private void startMetaTag(Attributes attributes) {
+			metaId++;
+			chars.setLength(0);
+			annotateSNode(getDocument(), null, metaKey(TCFMetaKeys.TAG, metaId, TCFMetaKeys.LANG), attributes.getValue(ATT_LANG), false, true);
+		}
+
+		private void startLemma(Attributes attributes) {
+			chars.setLength(0);
+			currentNodeID = attributes.getValue(TCFDictionary.ATT_TOKENIDS);
+			currentAnnoID = attributes.getValue(TCFDictionary.ATT_ID);
+			SNode sNode = getNode(currentNodeID);
+			sNode.addLayer(sLayers.get(LAYER_LEMMA));
+			currentSNode = sNode;
+		}
+
+		private void endLemma() {
+			/* build annotation */
+			SAnnotation anno = SaltFactory.createSLemmaAnnotation();
+			anno.setValue(chars.toString());
+			currentSNode.addAnnotation(anno);
+			labels.put(currentAnnoID, anno);
+		}
+
+		private void startDepparsing(Attributes attributes) {
+			currentNodeID = null;
+			SLayer depLayer = buildLayer(LAYER_DEPENDENCIES);
+			/* TODO the same has to be done in SaltSample, still undone */
+			/*
+			 * TODO the same has to be done for POS both in SaltSample(CHECK) and
+			 * here
+			 */
+			depLayer.createMetaAnnotation(null, TCFDictionary.ATT_TAGSET, attributes.getValue(TCFDictionary.ATT_TAGSET));
+			// depLayer.createMetaAnnotation(null,
+			// TCFDictionary.ATT_EMPTYTOKS,
+			// attributes.getValue(TCFDictionary.ATT_EMPTYTOKS));
+			// depLayer.createMetaAnnotation(null,
+			// TCFDictionary.ATT_MULTIGOVS,
+			// attributes.getValue(TCFDictionary.ATT_MULTIGOVS));
+		}
+
+		private void startDependency(Attributes attributes) {
+			/*
+			 * is there no governing ID, we skip, because we don't use a root
+			 * node
+			 */
+			SDocumentGraph graph = getSDocGraph();
+			if (attributes.getValue(ATT_GOVIDS) != null) {
+				SPointingRelation depRel = (SPointingRelation) graph.addNode(getStored(attributes.getValue(ATT_GOVIDS)), getStored(attributes.getValue(ATT_DEPIDS)), SALT_TYPE.SPOINTING_RELATION);
+				depRel.createAnnotation(LAYER_DEPENDENCIES, ATT_FUNC, attributes.getValue(ATT_FUNC)); // TODO
+																										// write
+																										// into
+																										// documentation,
+																										// how
+																										// I
+																										// use
+																										// namespaces
+				depRel.addLayer(sLayers.get(LAYER_DEPENDENCIES));
+				depRel.setType(STYPE_DEPENDENCY);
+			}
+		}
+
+		private void startParsing(Attributes attributes) {
+			currentNodeID = null;
+			ignoreIds = false;
+			SLayer syntaxLayer = buildLayer(LAYER_CONSTITUENTS);
+			syntaxLayer.createMetaAnnotation(null, ATT_TAGSET, attributes.getValue(ATT_TAGSET));
+		}
+
+		private void startConstituent(Attributes attributes) {
+			if (!ignoreIds) {
+				ignoreIds = (attributes.getValue(ATT_ID) == null);
+			}
+			/*
+			 * are we dealing with a potential SToken (sequence) or a potential
+			 * SStructure?
+			 */
+			String tokenIDs = attributes.getValue(ATT_TOKENIDS);
+			if (tokenIDs == null) {
+				/* SStructure */
+				SStructure sStruc = SaltFactory.createSStructure();
+				sStruc.createAnnotation(LAYER_CONSTITUENTS, ATT_CAT, attributes.getValue(ATT_CAT));
+				if (!ignoreIds) {
+					store(attributes.getValue(ATT_ID), sStruc);
+				}
+				sStruc.addLayer(sLayers.get(LAYER_CONSTITUENTS));
+				/* the dominance relation is added at the end of the parse */
+				getSDocGraph().addNode(sStruc);
+				tree.open(sStruc);
+			} else {
+				/* tokens/spans */
+				SStructuredNode sNode;
+				if (tokenIDs.indexOf(' ') >= 0) {
+					/* span */
+					sNode = (SSpan) sNodes.get(tokenIDs);
+					if (sNode == null) {
+						sNode = getSDocGraph().createSpan(getTokens(tokenIDs));
+						if (useCommonAnnotatedElement) {
+							store(tokenIDs, sNode);
+						} // store node, if spans should be reused
+					}
+					sNode.createAnnotation(LAYER_CONSTITUENTS, ATT_CAT, attributes.getValue(ATT_CAT));
+				} else {
+					/* single token */
+					if (shrinkTokenAnnotations) {
+						sNode = tokens.get(tokenIDs);
 					} else {
-						getDocument().createMetaAnnotation(null, TAG_MDCREATOR, chars.toString());
+						sNode = (SSpan) sNodes.get(tokenIDs + SPAN);
+						if (sNode == null) {
+							sNode = getSDocGraph().createSpan(tokens.get(tokenIDs));
+							if (useCommonAnnotatedElement) {
+								store(tokenIDs + SPAN, sNode);
+							} // store node, if spans should be reused
+						}
 					}
+					annotateSNode(sNode, LAYER_CONSTITUENTS, ATT_CAT, attributes.getValue(ATT_CAT), false, false);
 				}
-			} else if (TAG_MDCREATIONDATE.equals(localName)) {
-				if (chars.length() > 0) {
-					getDocument().createMetaAnnotation(null, TAG_MDCREATIONDATE, chars.toString());
+				/*
+				 * we HAVE TO open also tokens/spans to avoid that at the end of
+				 * their xml-element the wrong constituent is closed
+				 */
+				tree.open(sNode);
+			}
+		}
+
+		/**
+		 * This method resolves the tokens of a list of token ids separated by
+		 * spaces. The ids are resolved by {@link #tokens} without splitting
+		 * the list.
+		 */
+		private List<SToken> getTokens(String tokenIDs) {
+			List<SToken> sTokens = new ArrayList<SToken>();
+			int start = 0;
+			while (start < tokenIDs.length()) {
+				int end = tokenIDs.indexOf(' ', start);
+				if (end < 0) {
+					end = tokenIDs.length();
 				}
-			} else if (TAG_MDSELFLINK.equals(localName)) {
-				if (chars.length() > 0) {
-					getDocument().createMetaAnnotation(null, TAG_MDSELFLINK, chars.toString());
+				if (end > start) {
+					int position = tokens.indexOf(tokenIDs, start, end);
+					sTokens.add(position < 0 ? null : tokens.get(position));
 				}
-			} else if (TAG_MDPROFILE.equals(localName)) {
-				if (chars.length() > 0) {
-					getDocument().createMetaAnnotation(null, TAG_MDPROFILE, chars.toString());
+				start = end + 1;
+			}
+			return sTokens;
+		}
+
+		private void startMorphology() {
+			SLayer tcfMorphLayer = SaltFactory.createSLayer();
+			tcfMorphLayer.setName(LAYER_TCF_MORPHOLOGY);
+			getSDocGraph().addLayer(tcfMorphLayer);
+			sLayers.put(LAYER_TCF_MORPHOLOGY, tcfMorphLayer);
+		}
+
+		private void startAnalysis(Attributes attributes) {
+			currentNodeID = attributes.getValue(ATT_TOKENIDS);
+			SNode sNode = getNode(currentNodeID);
+			sNode.addLayer(sLayers.get(LAYER_TCF_MORPHOLOGY));
+			currentSNode = sNode;
+		}
+
+		private void startF(Attributes attributes) {
+			chars.setLength(0);
+			currentAnnoKey = attributes.getValue(ATT_NAME);
+		}
+
+		private void endF() {
+			/* build annotation */
+			annotateSNode(currentSNode, LAYER_TCF_MORPHOLOGY, currentAnnoKey, chars.toString(), false, false);
+		}
+
+		private void startSegment(Attributes attributes) {
+			chars.setLength(0);
+			annotateSNode(currentSNode, TAG_TC_SEGMENT, ATT_TYPE, attributes.getValue(ATT_TYPE), false, false);
+		}
+
+		private void startReferences(Attributes attributes) {
+			id = 0; // we might have used it in meta data (actually the start
+					// value doesn't matter here)
+			ignoreIds = false;
+			currentNodeID = null;
+			SLayer refLayer = buildLayer(LAYER_REFERENCES);
+			if (attributes.getValue(ATT_TYPETAGSET) != null) {
+				refLayer.createMetaAnnotation(null, ATT_TYPETAGSET, attributes.getValue(ATT_TYPETAGSET));
+			}
+			if (attributes.getValue(ATT_RELTAGSET) != null) {
+				refLayer.createMetaAnnotation(null, ATT_RELTAGSET, attributes.getValue(ATT_TYPETAGSET));
+			}
+		}
+
+		private void startReferenceEntity() {
+			currentSNode = null;
+			references.startEntity();
+		}
+
+		private void startReference(Attributes attributes) {
+			if (!ignoreIds) {
+				ignoreIds = (attributes.getValue(ATT_ID).equals(currentNodeID));
+			}
+			/* id of reference: */
+			currentNodeID = ignoreIds ? REF_PREFIX + id++ : attributes.getValue(ATT_ID);
+			currentSNode = getNode(attributes.getValue(ATT_TOKENIDS));
+			/* annotate */
+			// references can be used in several entities, e.g. "them" with
+			// "her" and "him", therefore the annotation could already exist
+			annotateSNode(currentSNode, LAYER_REFERENCES, ATT_TYPE, attributes.getValue(ATT_TYPE), false, false);
+			store(currentNodeID, currentSNode);// map with reference id --
+												// only used with
+												// ignoreIds==false
+			currentSNode.addLayer(sLayers.get(LAYER_REFERENCES));
+
+			/*
+			 * collect references to build them later (if it is not the
+			 * mentioning of the antecedent)
+			 */
+
+			if (attributes.getValue(ATT_REL) != null) {// in webanno files
+														// this is false for
+														// the last
+														// reference
+				references.addMention(currentSNode, attributes.getValue(ATT_TARGET), attributes.getValue(ATT_REL));
+			} else if (ignoreIds) {
+				references.addAntecedent(currentSNode);// target of all the
+														// others
+			}
+		}
+
+		private void endReferenceEntity() {
+			SNode target = null;
+			/* the chain is resolved backwards, the antecedent comes last */
+			for (int i = references.size() - 1; i >= 0; i--) {
+				ReferenceChain.Mention mention = references.get(i);
+				if (ignoreIds) {
+					if (mention.isAntecedent()) {
+						target = mention.source;
+					} else {// ATTENTION target is supposed to be !=null
+							// (!!!)
+						if (target == null) {
+							logger.info("!--------------------------- WARNING: target of reference not set!");
+						}
+						buildReference(mention.source, target, mention.rel);
+					}
+				} else if (!mention.isAntecedent()) {
+					/* relation on antecedent */
+					if (!mention.source.getId().equals(mention.target)) {
+						buildReference(mention.source, getStored(mention.target), mention.rel);
+					}
 				}
-			} else if (TAG_MDCOLLECTIONDISPLAYNAME.equals(localName)) {
-				if (chars.length() > 0) {
-					getDocument().createMetaAnnotation(null, TAG_MDCOLLECTIONDISPLAYNAME, chars.toString());
-				}
-			} else if (TAG_TC_TEXTCORPUS.equals(localName)) {
-				for (SNode sNode : trashList) {
-					getSDocGraph().removeNode(sNode);
-				}
-			} else if (TAG_RESOURCETYPE.equals(localName)) {
-				annotateSNode(getDocument(), null, (new StringBuilder()).append(TAG_RESOURCEPROXY).append(metaId).append(TAG_RESOURCETYPE).toString(), chars.toString(), false, true);
-			} else if (TAG_RESOURCEREF.equals(localName)) {
-				annotateSNode(getDocument(), null, (new StringBuilder()).append(TAG_RESOURCEPROXY).append(metaId).append(TAG_RESOURCEREF).toString(), chars.toString(), false, true);
-			} else if (TAG_JOURNALFILEREF.equals(localName)) {
-				annotateSNode(getDocument(), null, TAG_JOURNALFILEPROXY + metaId, chars.toString(), false, true);
-			} else if (TAG_RELATIONTYPE.equals(localName)) {
-				annotateSNode(getDocument(), null, (new StringBuilder()).append(TAG_RESOURCERELATION).append(metaId).append(":").append(TAG_RELATIONTYPE).toString(), chars.toString(), false, true);
-			} else if (TAG_RES1.equals(localName)) {
-				annotateSNode(getDocument(), null, (new StringBuilder()).append(TAG_RESOURCERELATION).append(metaId).append(":").append(TAG_RES1).toString(), chars.toString(), false, true);
-			} else if (TAG_RES2.equals(localName)) {
-				annotateSNode(getDocument(), null, (new StringBuilder()).append(TAG_RESOURCERELATION).append(metaId).append(":").append(TAG_RES2).toString(), chars.toString(), false, true);
-			} else if (TAG_ISPARTOF.equals(localName)) {
-				annotateSNode(getDocument(), null, (new StringBuilder()).append(TAG_ISPARTOFLIST).append(":").append(TAG_ISPARTOF).append(metaId).toString(), chars.toString(), false, true);
-			} else if (TAG_RESOURCENAME.equals(localName)) {
-				annotateSNode(getDocument(), null, (new StringBuilder()).append(TAG_WEBSERVICETOOLCHAIN).append(CLN).append(TAG_GENERALINFO).append(CLN).append(TAG_RESOURCENAME).append(metaId).toString(), chars.toString(), false, true);
-			} else if (TAG_RESOURCETITLE.equals(localName)) {
-				annotateSNode(getDocument(), null, (new StringBuilder()).append(TAG_WEBSERVICETOOLCHAIN).append(CLN).append(TAG_GENERALINFO).append(CLN).append(TAG_RESOURCETITLE).append(metaId).toString(), chars.toString(), false, true);
-			} else if (TAG_RESOURCETITLE.equals(localName)) {
-				String qN = (new StringBuilder()).append(TAG_WEBSERVICETOOLCHAIN).append(CLN).append(TAG_GENERALINFO).append(CLN).append(TAG_RESOURCECLASS).toString();
-				annotateSNode(getDocument(), null, qN, (getDocument().getMetaAnnotation(qN) == null ? chars.toString() : getDocument().getMetaAnnotation(qN).getValue() + "; " + chars.toString()), false, true);
-			} else if (TAG_VERSION.equals(localName)) {
-				annotateSNode(getDocument(), null, (new StringBuilder()).append(TAG_WEBSERVICETOOLCHAIN).append(CLN).append(TAG_GENERALINFO).append(CLN).append(TAG_VERSION).toString(), chars.toString(), false, true);
-			} else if (TAG_LIFECYCLESTATUS.equals(localName)) {
-				annotateSNode(getDocument(), null, (new StringBuilder()).append(TAG_WEBSERVICETOOLCHAIN).append(CLN).append(TAG_GENERALINFO).append(CLN).append(TAG_LIFECYCLESTATUS).toString(), chars.toString(), false, true);
-			} else if (TAG_STARTYEAR.equals(localName)) {
-				annotateSNode(getDocument(), null, (new StringBuilder()).append(TAG_WEBSERVICETOOLCHAIN).append(CLN).append(TAG_GENERALINFO).append(CLN).append(TAG_STARTYEAR).toString(), chars.toString(), false, true);
-			} else if (TAG_COMPLETIONYEAR.equals(localName)) {
-				annotateSNode(getDocument(), null, (new StringBuilder()).append(TAG_WEBSERVICETOOLCHAIN).append(CLN).append(TAG_GENERALINFO).append(CLN).append(TAG_COMPLETIONYEAR).toString(), chars.toString(), false, true);
-			} else if (TAG_PUBLICATIONDATE.equals(localName)) {
-				annotateSNode(getDocument(), null, (new StringBuilder()).append(TAG_WEBSERVICETOOLCHAIN).append(CLN).append(TAG_GENERALINFO).append(CLN).append(TAG_PUBLICATIONDATE).toString(), chars.toString(), false, true);
-			} else if (TAG_LASTUPDATE.equals(localName)) {
-				annotateSNode(getDocument(), null, (new StringBuilder()).append(TAG_WEBSERVICETOOLCHAIN).append(CLN).append(TAG_GENERALINFO).append(CLN).append(TAG_LASTUPDATE).toString(), chars.toString(), false, true);
-			} else if (TAG_TIMECOVERAGE.equals(localName)) {
-				String qN = (new StringBuilder()).append(TAG_WEBSERVICETOOLCHAIN).append(CLN).append(TAG_GENERALINFO).append(CLN).append(TAG_TIMECOVERAGE).toString();
-				annotateSNode(getDocument(), null, qN, (getDocument().getMetaAnnotation(qN) == null ? chars.toString() : getDocument().getMetaAnnotation(qN).getValue() + "; " + chars.toString()), false, true);
-			} else if (TAG_LEGALOWNER.equals(localName)) {
-				String qN = (new StringBuilder()).append(TAG_WEBSERVICETOOLCHAIN).append(CLN).append(TAG_GENERALINFO).append(CLN).append(TAG_LEGALOWNER).toString();
-				annotateSNode(getDocument(), null, qN, (getDocument().getMetaAnnotation(qN) == null ? chars.toString() : getDocument().getMetaAnnotation(qN).getValue() + "; " + chars.toString()), false, true);
-			} else if (TAG_GENRE.equals(localName)) {
-				String qN = (new StringBuilder()).append(TAG_WEBSERVICETOOLCHAIN).append(CLN).append(TAG_GENERALINFO).append(CLN).append(TAG_GENRE).toString();
-				annotateSNode(getDocument(), null, qN, (getDocument().getMetaAnnotation(qN) == null ? chars.toString() : getDocument().getMetaAnnotation(qN).getValue() + "; " + chars.toString()), false, true);
-			} else if (TAG_ADDRESS.equals(localName)) {
-				String qN = (new StringBuilder()).append(TAG_WEBSERVICETOOLCHAIN).append(CLN).append(TAG_GENERALINFO).append(CLN).append(TAG_LOCATION).append(CLN).append(TAG_ADDRESS).toString();
-				annotateSNode(getDocument(), null, qN, (getDocument().getMetaAnnotation(qN) == null ? chars.toString() : getDocument().getMetaAnnotation(qN).getValue() + "; " + chars.toString()), false, true);
-			} else if (TAG_REGION.equals(localName)) {
-				String qN = (new StringBuilder()).append(TAG_WEBSERVICETOOLCHAIN).append(CLN).append(TAG_GENERALINFO).append(CLN).append(TAG_LOCATION).append(CLN).append(TAG_REGION).toString();
-				annotateSNode(getDocument(), null, qN, (getDocument().getMetaAnnotation(qN) == null ? chars.toString() : getDocument().getMetaAnnotation(qN).getValue() + "; " + chars.toString()), false, true);
-			} else if (TAG_CONTINENTNAME.equals(localName)) {
-				String qN = (new StringBuilder()).append(TAG_WEBSERVICETOOLCHAIN).append(CLN).append(TAG_GENERALINFO).append(CLN).append(TAG_LOCATION).append(CLN).append(TAG_CONTINENTNAME).toString();
-				annotateSNode(getDocument(), null, qN, (getDocument().getMetaAnnotation(qN) == null ? chars.toString() : getDocument().getMetaAnnotation(qN).getValue() + "; " + chars.toString()), false, true);
-			} else if (TAG_COUNTRYNAME.equals(localName)) {
-				String qN = (new StringBuilder()).append(TAG_WEBSERVICETOOLCHAIN).append(CLN).append(TAG_GENERALINFO).append(CLN).append(TAG_LOCATION).append(CLN).append(TAG_COUNTRY).append(CLN).append(TAG_COUNTRYNAME).toString();
-				annotateSNode(getDocument(), null, qN, (getDocument().getMetaAnnotation(qN) == null ? chars.toString() : getDocument().getMetaAnnotation(qN).getValue() + "; " + chars.toString()), false, true);
-			} else if (TAG_COUNTRYCODING.equals(localName)) {
-				String qN = (new StringBuilder()).append(TAG_WEBSERVICETOOLCHAIN).append(CLN).append(TAG_GENERALINFO).append(CLN).append(TAG_LOCATION).append(CLN).append(TAG_COUNTRY).append(CLN).append(TAG_COUNTRYCODING).toString();
-				annotateSNode(getDocument(), null, qN, (getDocument().getMetaAnnotation(qN) == null ? chars.toString() : getDocument().getMetaAnnotation(qN).getValue() + "; " + chars.toString()), false, true);
-			} else if (TAG_DESCRIPTION.equals(localName)) {
-				annotateSNode(getDocument(), null, (new StringBuilder()).append(TAG_WEBSERVICETOOLCHAIN).append(CLN).append(TAG_GENERALINFO).append(CLN).append(TAG_DESCRIPTION).append(metaId).toString(), chars.toString(), false, true);
-			} else if (TAG_PID.equals(localName)) {
-				annotateSNode(getDocument(), null, (new StringBuilder()).append(TAG_WEBSERVICETOOLCHAIN).append(CLN).append(TAG_TOOLCHAIN).append(CLN).append(TAG_TOOLINCHAIN).append(metaId).append(CLN).append(TAG_PID).toString(), chars.toString(), false, true);
-			} else if (TAG_PARAMETER.equals(localName)) {
-				annotateSNode(getDocument(), null, (new StringBuilder()).append(TAG_WEBSERVICETOOLCHAIN).append(CLN).append(TAG_TOOLCHAIN).append(CLN).append(TAG_TOOLINCHAIN).append(metaId).append(CLN).append(TAG_PARAMETER).append(id).toString(), chars.toString(), false, true);
+			}
+		}
+
+		/**
+		 * This method creates an {@link SPointingRelation} with the sType
+		 * "reference", if source and target are not connected by one yet.
+		 */
+		private void buildReference(SNode sSource, SNode sTarget, String rel) {
+			if (references.link(sSource, sTarget)) {
+				SPointingRelation ref = (SPointingRelation) getSDocGraph().addNode(sSource, sTarget, SALT_TYPE.SPOINTING_RELATION);
+				ref.setType(STYPE_REFERENCE);
+				ref.createAnnotation(LAYER_REFERENCES, ATT_REL, rel);
+				ref.addLayer(sLayers.get(LAYER_REFERENCES));
+			}
+		}
+
+		private void startNamedEntities(Attributes attributes) {
+			SLayer namedEntities = buildLayer(LAYER_NE);
+			String annoVal = attributes.getValue(ATT_TYPE);
+			if (annoVal != null) {
+				namedEntities.createMetaAnnotation(null, ATT_TYPE, annoVal);
+			}
+		}
+
+		private void startNamedEntity(Attributes attributes) {
+			currentNodeID = attributes.getValue(ATT_TOKENIDS);
+			SNode sNode = getNode(currentNodeID);
+			/* annotate */
+			annotateSNode(sNode, LAYER_NE, ATT_CLASS, attributes.getValue(ATT_CLASS), false, false);
+			/* add to layer */
+			sNode.addLayer(sLayers.get(LAYER_NE));
+		}
+
+		private void startPhonetics(Attributes attributes) {
+			SLayer phoLayer = buildLayer(LAYER_PHONETICS);
+			String annoVal = attributes.getValue(ATT_TRANSCRIPTION);
+			if (annoVal != null) {
+				phoLayer.createMetaAnnotation(null, ATT_TRANSCRIPTION, annoVal);
+			}
+		}
+
+		private void startPron(Attributes attributes) {
+			chars.setLength(0);
+			currentNodeID = attributes.getValue(ATT_TOKID);
+			currentSNode = shrinkTokenAnnotations ? (SToken) getStored(currentNodeID) : (useCommonAnnotatedElement ? sNodes.get(currentNodeID + SPAN) : getSDocGraph().createSpan((SToken) getStored(currentNodeID)));
+			if (currentSNode == null) {// only possible if
+										// useCommonAnnotatedElement==true
+				currentSNode = getSDocGraph().createSpan((SToken) getStored(currentNodeID));
+				store(currentNodeID + SPAN, currentSNode);
+			}
+			currentSNode.addLayer(sLayers.get(LAYER_PHONETICS));
+		}
+
+		private void endPron() {
+			currentSNode.createAnnotation(LAYER_PHONETICS, TAG_TC_PRON, chars.toString());
+		}
+
+		private void startCorrection(Attributes attributes) {
+			chars.setLength(0);
+			currentNodeID = attributes.getValue(ATT_TOKENIDS);
+			SNode sNode = getNode(currentNodeID);
+			SAnnotation correction = sNode.createAnnotation(LAYER_ORTHOGRAPHY, TAG_TC_CORRECTION, null);
+			String opVal = attributes.getValue(ATT_OPERATION);
+			if (opVal != null) {
+				SAnnotation operation = SaltFactory.createSAnnotation();
+				operation.setName(ATT_OPERATION);
+				operation.setNamespace(LAYER_ORTHOGRAPHY);
+				operation.setValue(attributes.getValue(ATT_OPERATION));
+				correction.addLabel(operation);
+			}
+			sNode.addLayer(sLayers.get(LAYER_ORTHOGRAPHY));
+			currentSNode = sNode;
+		}
+
+		private void endCorrection() {
+			currentSNode.getAnnotation(LAYER_ORTHOGRAPHY + "::" + TAG_TC_CORRECTION).setValue(chars.toString());
+		}
+
+		private void startGeo(Attributes attributes) {
+			SLayer geoLayer = buildLayer(LAYER_GEO);
+			for (int i = 0; i < attributes.getLength(); i++) {
+				geoLayer.createMetaAnnotation(null, attributes.getLocalName(i), attributes.getValue(i));
+			}
+		}
+
+		private void endSrc() {
+			sLayers.get(LAYER_GEO).createMetaAnnotation(null, TAG_TC_SRC, chars.toString());
+		}
+
+		private void startGPoint(Attributes attributes) {
+			SNode sNode = getNode(attributes.getValue(ATT_TOKENIDS));
+			/* annotate */
+			annotateSNode(sNode, LAYER_GEO, ATT_ALT, attributes.getValue(ATT_ALT), false, false);
+			annotateSNode(sNode, LAYER_GEO, ATT_LAT, attributes.getValue(ATT_LAT), false, false);
+			annotateSNode(sNode, LAYER_GEO, ATT_LON, attributes.getValue(ATT_LON), false, false);
+			annotateSNode(sNode, LAYER_GEO, ATT_CONTINENT, attributes.getValue(ATT_CONTINENT), false, false);
+			annotateSNode(sNode, LAYER_GEO, ATT_COUNTRY, attributes.getValue(ATT_COUNTRY), false, false);
+			annotateSNode(sNode, LAYER_GEO, ATT_CAPITAL, attributes.getValue(ATT_CAPITAL), false, false);
+			sNode.addLayer(sLayers.get(LAYER_GEO));
+		}
+
+		private void startLexicalSemantics() {
+			if (!sLayers.containsKey(LAYER_LS)) {
+				buildLayer(LAYER_LS);
+			}
+		}
+
+		/**
+		 * @param relation
+		 *            is the name of the lexical-semantic relation (synonymy,
+		 *            antonymy, ...) containing the orthform
+		 */
+		private void startOrthform(Attributes attributes, String relation) {
+			chars.setLength(0);
+			currentAnnoID = attributes.getValue(ATT_LEMMAREFS);
+			SLemmaAnnotation lemma = (SLemmaAnnotation) labels.get(currentAnnoID);
+			SAnnotation anno = SaltFactory.createSAnnotation();
+			anno.setNamespace(LAYER_LS);
+			anno.setName(relation);
+			lemma.addLabel(anno);
+			((SNode) lemma.getContainer()).addLayer(sLayers.get(LAYER_LS));
+		}
+
+		private void endOrthform(String relation) {
+			labels.get(currentAnnoID).getLabel(LAYER_LS, relation).setValue(chars.toString());
+		}
+
+		private void startWsd(Attributes attributes) {
+			buildLayer(LAYER_WORDSENSE);
+			String annoVal = attributes.getValue(ATT_SRC);
+			if (annoVal != null) {
+				sLayers.get(LAYER_WORDSENSE).createMetaAnnotation(null, ATT_SRC, annoVal);
+			}
+		}
+
+		private void startWs(Attributes attributes) {
+			SNode sNode = getNode(attributes.getValue(ATT_TOKENIDS));
+			annotateSNode(sNode, LAYER_WORDSENSE, ATT_LEXUNITS, attributes.getValue(ATT_LEXUNITS), false, false);
+			annotateSNode(sNode, LAYER_WORDSENSE, ATT_COMMENT, attributes.getValue(ATT_COMMENT), false, false);
+			sNode.addLayer(sLayers.get(LAYER_WORDSENSE));
+		}
+
+		private void startWordSplittings(Attributes attributes) {
+			SLayer splitLayer = buildLayer(LAYER_SPLITTINGS);
+			if (attributes.getValue(ATT_TYPE) != null) {
+				splitLayer.createMetaAnnotation(null, ATT_TYPE, attributes.getValue(ATT_TYPE));
+			}
+		}
+
+		private void startSplit(Attributes attributes) {
+			chars.setLength(0);
+			currentSNode = getNode(attributes.getValue(ATT_TOKID));
+			currentSNode.addLayer(sLayers.get(LAYER_SPLITTINGS));
+		}
+
+		private void endSplit() {
+			currentSNode.createAnnotation(LAYER_SPLITTINGS, TAG_TC_SPLIT, chars.toString());
+		}
+
+		private void startDiscourseConnectives(Attributes attributes) {
+			SLayer discourseLayer = buildLayer(LAYER_DISCOURSE);
+			String annoVal = attributes.getValue(ATT_TAGSET);
+			if (annoVal != null) {
+				discourseLayer.createMetaAnnotation(null, ATT_TAGSET, annoVal);
+			}
+		}
+
+		private void startConnective(Attributes attributes) {
+			SNode sNode = getNode(attributes.getValue(ATT_TOKENIDS));
+			annotateSNode(sNode, LAYER_DISCOURSE, ATT_TYPE, attributes.getValue(ATT_TYPE), false, false);
+			sNode.addLayer(sLayers.get(LAYER_DISCOURSE));
+		}
+
+		private void startTextspan(Attributes attributes) {
+			if (attributes.getValue(ATT_START) != null && attributes.getValue(ATT_END) != null) {
+				SDocumentGraph graph = getSDocGraph();
+				int first = tokens.indexOf(attributes.getValue(ATT_START));
+				int last = tokens.indexOf(attributes.getValue(ATT_END));
+				SToken startToken = (SToken) getStored(attributes.getValue(ATT_START));
+				SToken endToken = (SToken) getStored(attributes.getValue(ATT_END));
+				SNode sNode = null;
+				if (startToken.equals(endToken)) {
+					sNode = shrinkTokenAnnotations ? startToken : graph.createSpan(startToken);
+				} else {
+					/* we ignore useCommonAnnotatedElement here */
+					if (first >= 0 && last >= first && !skippedTokens.get(first) && !skippedTokens.get(last)) {
+						sNode = graph.createSpan(startToken);
+						for (int j = first + 1; j <= last; j++) {
+							if (!skippedTokens.get(j)) {
+								graph.addNode(sNode, tokens.get(j), SALT_TYPE.SSPANNING_RELATION);
+							}
+						}
+					} else {
+						/* at least one token is not aligned with the text */
+						List<SToken> allTokens = graph.getSortedTokenByText();
+						int j = 0;
+						while (j < allTokens.size() && !allTokens.get(j).equals(startToken)) {
+							j++;
+						}
+						sNode = graph.createSpan(startToken);
+						j++;
+						while (j < allTokens.size() && !allTokens.get(j).equals(endToken)) {
+							graph.addNode(sNode, allTokens.get(j), SALT_TYPE.SSPANNING_RELATION);
+							j++;
+						}
+						graph.addNode(sNode, allTokens.get(j), SALT_TYPE.SSPANNING_RELATION);
+					}
+				}
+				/* annotate */
+				annotateSNode(sNode, LAYER_TEXTSTRUCTURE, ATT_TYPE, attributes.getValue(ATT_TYPE), false, false);
+				sNode.addLayer(sLayers.get(LAYER_TEXTSTRUCTURE));
 			}
 		}
 
@@ -864,24 +1361,39 @@ public class TCFMapperImport extends PepperMapperImpl {
 		 * This method identifies cosmetic characters used to format the
 		 * document which are not relevant for import.
 		 * 
-		 * @param s
-		 *            is the {@link String} to be examined
-		 * @return true, if s is empty or only contains formatting characters;
-		 *         else false
+		 * @param ch
+		 *            contains the characters to be examined
+		 * @param start
+		 *            is the start position in ch
+		 * @param length
+		 *            is the number of characters to be examined
+		 * @return true, if the characters are empty or only contain formatting
+		 *         characters; else false
 		 */
-		private boolean isPrettyPrint(String s) {
-			return s.replace(" ", "").replace("\t", "").replace("\n", "").replace("\r", "").isEmpty();
+		private boolean isPrettyPrint(char[] ch, int start, int length) {
+			for (int i = start; i < start + length; i++) {
+				char c = ch[i];
+				if (c != ' ' && c != '\t' && c != '\n' && c != '\r') {
+					return false;
+				}
+			}
+			return true;
 		}
 
 		@Override
 		public void characters(char[] ch, int start, int length) throws SAXException {
-			StringBuilder txt = new StringBuilder();
-			for (int i = start; i < start + length; i++) {
-				txt.append(ch[i]);
+			if (skipDepth == 0) {
+				appendCharacters(ch, start, length);
 			}
-			boolean add = !isPrettyPrint(txt.toString());
-			if (add) {
-				chars.append(txt.toString());
+		}
+
+		/**
+		 * This method adds the given characters to {@link #chars}, unless they
+		 * are only used to format the document.
+		 */
+		private void appendCharacters(char[] ch, int start, int length) {
+			if (!isPrettyPrint(ch, start, length)) {
+				chars.append(ch, start, length);
 			}
 		}
 
@@ -898,15 +1410,15 @@ public class TCFMapperImport extends PepperMapperImpl {
 			if (id == null) {
 				return null;
 			}
-			SNode sNode = sNodes.get(id);
+			SNode sNode = getStored(id);
 			SDocumentGraph graph = getSDocGraph();
 			if (id.contains(" ")) {
 				if (sNode == null) {
 					/* build span */
 					String[] seq = id.split(" ");
-					sNode = graph.createSpan((SToken) sNodes.get(seq[0]));
+					sNode = graph.createSpan((SToken) getStored(seq[0]));
 					for (int i = 1; i < seq.length; i++) {
-						graph.addNode(sNode, (SToken) sNodes.get(seq[i]), SALT_TYPE.SSPANNING_RELATION);
+						graph.addNode(sNode, (SToken) getStored(seq[i]), SALT_TYPE.SSPANNING_RELATION);
 					}
 					if (useCommonAnnotatedElement) {
 						store(id, sNode);
@@ -917,7 +1429,7 @@ public class TCFMapperImport extends PepperMapperImpl {
 				if (sNode == null) {// only if shrinkTokenAnnotations==false and
 									// useCommonAnnotatedElement==true
 					/* build span over single token */
-					sNode = graph.createSpan((SToken) sNodes.get(id));
+					sNode = graph.createSpan((SToken) getStored(id));
 					store(id.concat(SPAN), sNode);
 				}
 			}
@@ -931,6 +1443,25 @@ public class TCFMapperImport extends PepperMapperImpl {
 			sNodes.put(key, sNode);
 		}
 
+		/**
+		 * This method stores a token in {@link #tokens}.
+		 * 
+		 * @return the position of the token
+		 */
+		private int storeToken(String key, SToken sToken) {
+			return tokens.add(key, sToken);
+		}
+
+		/**
+		 * This method returns the {@link SNode} stored with the given key. Token
+		 * ids are resolved by {@link #tokens}, all other keys by
+		 * {@link #sNodes}.
+		 */
+		private SNode getStored(String key) {
+			SToken sToken = tokens.get(key);
+			return sToken != null ? sToken : sNodes.get(key);
+		}
+
 		/**
 		 * *
 		 * 
@@ -986,25 +1517,535 @@ public class TCFMapperImport extends PepperMapperImpl {
 			}
 			return anno;
 		}
+	}
+
+	/**
+	 * This class imports a TCF document by pulling its events from an
+	 * {@link XMLStreamReader}. Each layer of the text corpus is consumed by a
+	 * loop, which knows the context of the elements it reads, so no path
+	 * through the document needs to be maintained. The conversion itself is
+	 * done by the handler methods of a {@link TCFReader}, which also holds the
+	 * state of the import. Meta data are passed to the {@link TCFReader} as
+	 * SAX events.
+	 */
+	private class TCFStreamReader {
+		/**
+		 * the property limiting the depth of elements in Woodstox, which
+		 * otherwise rejects parses nested deeper than 1000 elements
+		 */
+		private static final String MAX_ELEMENT_DEPTH = "com.ctc.wstx.maxElementDepth";
+		/** holds the state of the import and converts the single elements */
+		private final TCFReader handler;
+		/** the reader the events are pulled from */
+		private XMLStreamReader reader;
+		/** provides the attributes of the current start element */
+		private Attributes attributes;
+
+		public TCFStreamReader(TCFReader handler) {
+			this.handler = handler;
+		}
 
 		/**
-		 * This method checks, if an {@link SPointingRelation} with the sType
-		 * "reference" already exists or has to be created.
+		 * This method reads the TCF document located at the given uri.
 		 * 
-		 * @param sSource
-		 * @param sTarget
-		 * @return true, if the {@link SPointingRelation} exists.
-		 */
-		private boolean referenceExists(SNode sSource, SNode sTarget) {
-			for (SRelation sRel : sSource.getOutRelations()) {
-				if (sRel instanceof SPointingRelation) {
-					if ((sRel.getTarget() == sTarget) && (sRel.getType().equals(STYPE_REFERENCE))) {
-						return true;
+		 * @param resourceURI
+		 *            location of the TCF document
+		 */
+		public void read(URI resourceURI) {
+			if (resourceURI == null) {
+				throw new PepperModuleXMLResourceException("Cannot load a xml-resource, because the given uri to locate file is null.");
+			}
+			File file = new File(resourceURI.toFileString());
+			if (!file.exists()) {
+				throw new PepperModuleXMLResourceException("Cannot load a xml-resource, because the file does not exist: " + file);
+			}
+			InputStream in = null;
+			try {
+				in = new BufferedInputStream(new FileInputStream(file));
+				XMLInputFactory factory = XMLInputFactory.newInstance();
+				if (factory.isPropertySupported(MAX_ELEMENT_DEPTH)) {
+					factory.setProperty(MAX_ELEMENT_DEPTH, Integer.MAX_VALUE);
+				}
+				reader = factory.createXMLStreamReader(in);
+				attributes = new XMLStreamAttributes(reader);
+				try {
+					readDocument();
+				} finally {
+					reader.close();
+				}
+			} catch (IOException | XMLStreamException | SAXException e) {
+				throw new PepperModuleXMLResourceException("Cannot load a xml-resource '" + file.getAbsolutePath() + "'.", e);
+			} finally {
+				if (in != null) {
+					try {
+						in.close();
+					} catch (IOException e) {
+						logger.warn("Cannot close xml-resource '" + file.getAbsolutePath() + "'.", e);
+					}
+				}
+			}
+		}
+
+		/**
+		 * Reads the whole document. The text corpus is read by
+		 * {@link #readTextCorpus()}, all other elements are passed to the
+		 * {@link TCFReader}.
+		 */
+		private void readDocument() throws XMLStreamException, SAXException {
+			while (reader.hasNext()) {
+				switch (reader.next()) {
+				case XMLStreamConstants.START_ELEMENT:
+					if (TCFElement.TEXTCORPUS.getName().equals(reader.getLocalName())) {
+						readTextCorpus();
+					} else {
+						handler.startElement(reader.getNamespaceURI(), reader.getLocalName(), reader.getLocalName(), attributes);
 					}
+					break;
+				case XMLStreamConstants.END_ELEMENT:
+					handler.endElement(reader.getNamespaceURI(), reader.getLocalName(), reader.getLocalName());
+					break;
+				case XMLStreamConstants.CHARACTERS:
+				case XMLStreamConstants.CDATA:
+				case XMLStreamConstants.SPACE:
+					handler.appendCharacters(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+					break;
+				default:
+					break;
+				}
+			}
+			handler.endDocument();
+		}
+
+		private void readTextCorpus() throws XMLStreamException {
+			handler.startTextCorpus(attributes);
+			while (nextChild()) {
+				TCFElement element = TCFElement.forName(reader.getLocalName());
+				if (element == null || !handler.isImported(element)) {
+					skipElement();
+					continue;
+				}
+				handler.startLayer(element);
+				switch (element) {
+				case TEXT:
+					handler.startText();
+					readCharacters();
+					handler.endText();
+					break;
+				case TOKENS:
+					readTokens();
+					break;
+				case SENTENCES:
+					readSentences();
+					break;
+				case POSTAGS:
+					readPOSTags();
+					break;
+				case LEMMAS:
+					readLemmas();
+					break;
+				case DEPPARSING:
+					readDepparsing();
+					break;
+				case PARSING:
+					readParsing();
+					break;
+				case MORPHOLOGY:
+					readMorphology();
+					break;
+				case REFERENCES:
+					readReferences();
+					break;
+				case NAMEDENTITIES:
+					readNamedEntities();
+					break;
+				case PHONETICS:
+					readPhonetics();
+					break;
+				case ORTHOGRAPHY:
+					readOrthography();
+					break;
+				case GEO:
+					readGeo();
+					break;
+				case SYNONYMY:
+				case ANTONYMY:
+				case HYPONYMY:
+				case HYPERONYMY:
+					readLexicalSemantics(element.getName());
+					break;
+				case WSD:
+					readWsd();
+					break;
+				case WORDSPLITTINGS:
+					readWordSplittings();
+					break;
+				case DISCOURSECONNECTIVES:
+					readDiscourseConnectives();
+					break;
+				case TEXTSTRUCTURE:
+					handler.buildLayer(LAYER_TEXTSTRUCTURE);
+					readTextspans();
+					break;
+				case TEXTSPAN:
+					/* tolerate textspans following the textstructure */
+					if (handler.isImported(TCFElement.TEXTSTRUCTURE)) {
+						handler.startTextspan(attributes);
+						readTextspans();
+					} else {
+						skipElement();
+					}
+					break;
+				default:
+					skipElement();
+					break;
+				}
+				handler.endLayer(element);
+			}
+			handler.endTextCorpus();
+		}
+
+		private void readTokens() throws XMLStreamException {
+			while (nextChild()) {
+				if (isElement(TCFElement.TOKEN)) {
+					handler.startToken(attributes);
+					readCharacters();
+					handler.endToken();
+				} else if (isElement(TCFElement.TOKENS)) {
+					/* tolerate a nested tokens element */
+					readTokens();
+				} else {
+					skipElement();
+				}
+			}
+		}
+
+		private void readSentences() throws XMLStreamException {
+			handler.buildLayer(LAYER_SENTENCES);
+			while (nextChild()) {
+				if (isElement(TCFElement.SENTENCE)) {
+					handler.startSentence(attributes);
+				}
+				skipElement();
+			}
+		}
+
+		private void readPOSTags() throws XMLStreamException {
+			handler.startPOSTags(attributes);
+			while (nextChild()) {
+				if (isElement(TCFElement.TAG)) {
+					handler.startPOSTag(attributes);
+					readCharacters();
+					handler.endPOSTag();
+				} else {
+					skipElement();
+				}
+			}
+		}
+
+		private void readLemmas() throws XMLStreamException {
+			handler.buildLayer(LAYER_LEMMA);
+			while (nextChild()) {
+				if (isElement(TCFElement.LEMMA)) {
+					handler.startLemma(attributes);
+					readCharacters();
+					handler.endLemma();
+				} else {
+					skipElement();
+				}
+			}
+		}
+
+		private void readDepparsing() throws XMLStreamException {
+			handler.startDepparsing(attributes);
+			while (nextChild()) {
+				if (isElement(TCFElement.PARSE)) {
+					while (nextChild()) {
+						if (isElement(TCFElement.DEPENDENCY)) {
+							handler.startDependency(attributes);
+						}
+						skipElement();
+					}
+				} else {
+					skipElement();
+				}
+			}
+		}
+
+		private void readParsing() throws XMLStreamException {
+			handler.startParsing(attributes);
+			while (nextChild()) {
+				if (isElement(TCFElement.PARSE)) {
+					handler.tree.startParse();
+					readConstituents();
+					handler.tree.endParse(handler.getSDocGraph());
+				} else {
+					skipElement();
+				}
+			}
+		}
+
+		/**
+		 * reads the constituents dominated by the current element. The open
+		 * constituents are kept on the stack of the {@link ConstituentTree}
+		 * instead of the call stack, so deeply nested parses do not overflow
+		 * it.
+		 */
+		private void readConstituents() throws XMLStreamException {
+			/* the number of open constituents */
+			int depth = 0;
+			while (true) {
+				if (nextChild()) {
+					if (isElement(TCFElement.CONSTITUENT)) {
+						handler.startConstituent(attributes);
+						depth++;
+					} else {
+						skipElement();
+					}
+				} else if (depth > 0) {
+					handler.tree.close();
+					depth--;
+				} else {
+					break;
+				}
+			}
+		}
+
+		private void readMorphology() throws XMLStreamException {
+			handler.startMorphology();
+			while (nextChild()) {
+				if (isElement(TCFElement.ANALYSIS)) {
+					handler.startAnalysis(attributes);
+					readAnalysis();
+				} else {
+					skipElement();
+				}
+			}
+		}
+
+		/**
+		 * reads the features and segments of an analysis, which may be nested
+		 * in feature structures
+		 */
+		private void readAnalysis() throws XMLStreamException {
+			int depth = 1;
+			while (depth > 0) {
+				switch (reader.next()) {
+				case XMLStreamConstants.START_ELEMENT:
+					depth++;
+					if (isElement(TCFElement.F)) {
+						handler.startF(attributes);
+					} else if (isElement(TCFElement.SEGMENT)) {
+						handler.startSegment(attributes);
+					}
+					break;
+				case XMLStreamConstants.END_ELEMENT:
+					depth--;
+					if (isElement(TCFElement.F)) {
+						handler.endF();
+					}
+					break;
+				case XMLStreamConstants.CHARACTERS:
+				case XMLStreamConstants.CDATA:
+				case XMLStreamConstants.SPACE:
+					handler.appendCharacters(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+					break;
+				default:
+					break;
+				}
+			}
+		}
+
+		private void readReferences() throws XMLStreamException {
+			handler.startReferences(attributes);
+			while (nextChild()) {
+				if (isElement(TCFElement.ENTITY)) {
+					handler.startReferenceEntity();
+					while (nextChild()) {
+						if (isElement(TCFElement.REFERENCE)) {
+							handler.startReference(attributes);
+						}
+						skipElement();
+					}
+					handler.endReferenceEntity();
+				} else {
+					skipElement();
+				}
+			}
+		}
+
+		private void readNamedEntities() throws XMLStreamException {
+			handler.startNamedEntities(attributes);
+			while (nextChild()) {
+				if (isElement(TCFElement.ENTITY)) {
+					handler.startNamedEntity(attributes);
+				}
+				skipElement();
+			}
+		}
+
+		private void readPhonetics() throws XMLStreamException {
+			handler.startPhonetics(attributes);
+			while (nextChild()) {
+				if (isElement(TCFElement.PRON)) {
+					handler.startPron(attributes);
+					readCharacters();
+					handler.endPron();
+				} else {
+					skipElement();
+				}
+			}
+		}
+
+		private void readOrthography() throws XMLStreamException {
+			handler.buildLayer(LAYER_ORTHOGRAPHY);
+			while (nextChild()) {
+				if (isElement(TCFElement.CORRECTION)) {
+					handler.startCorrection(attributes);
+					readCharacters();
+					handler.endCorrection();
+				} else {
+					skipElement();
+				}
+			}
+		}
+
+		private void readGeo() throws XMLStreamException {
+			handler.startGeo(attributes);
+			while (nextChild()) {
+				if (isElement(TCFElement.SRC)) {
+					readCharacters();
+					handler.endSrc();
+				} else {
+					if (isElement(TCFElement.GPOINT)) {
+						handler.startGPoint(attributes);
+					}
+					skipElement();
+				}
+			}
+		}
+
+		/**
+		 * @param relation
+		 *            is the name of the lexical-semantic relation (synonymy,
+		 *            antonymy, ...)
+		 */
+		private void readLexicalSemantics(String relation) throws XMLStreamException {
+			handler.startLexicalSemantics();
+			while (nextChild()) {
+				if (isElement(TCFElement.ORTHFORM)) {
+					handler.startOrthform(attributes, relation);
+					readCharacters();
+					handler.endOrthform(relation);
+				} else {
+					skipElement();
+				}
+			}
+		}
+
+		private void readWsd() throws XMLStreamException {
+			handler.startWsd(attributes);
+			while (nextChild()) {
+				if (isElement(TCFElement.WS)) {
+					handler.startWs(attributes);
+				}
+				skipElement();
+			}
+		}
+
+		private void readWordSplittings() throws XMLStreamException {
+			handler.startWordSplittings(attributes);
+			while (nextChild()) {
+				if (isElement(TCFElement.SPLIT)) {
+					handler.startSplit(attributes);
+					readCharacters();
+					handler.endSplit();
+				} else {
+					skipElement();
+				}
+			}
+		}
+
+		private void readDiscourseConnectives() throws XMLStreamException {
+			handler.startDiscourseConnectives(attributes);
+			while (nextChild()) {
+				if (isElement(TCFElement.CONNECTIVE)) {
+					handler.startConnective(attributes);
+				}
+				skipElement();
+			}
+		}
+
+		/** reads the (possibly nested) textspans of the current element */
+		private void readTextspans() throws XMLStreamException {
+			while (nextChild()) {
+				if (isElement(TCFElement.TEXTSPAN)) {
+					handler.startTextspan(attributes);
+					readTextspans();
+				} else {
+					skipElement();
+				}
+			}
+		}
+
+		/**
+		 * Moves the reader to the next child of the current element.
+		 * 
+		 * @return true, if the reader is positioned on the start of the next
+		 *         child, false, if it is positioned on the end of the current
+		 *         element
+		 */
+		private boolean nextChild() throws XMLStreamException {
+			while (reader.hasNext()) {
+				switch (reader.next()) {
+				case XMLStreamConstants.START_ELEMENT:
+					handler.statistics.countElement();
+					return true;
+				case XMLStreamConstants.END_ELEMENT:
+					return false;
+				default:
+					break;
 				}
 			}
 			return false;
 		}
+
+		/** Moves the reader to the end of the current element. */
+		private void skipElement() throws XMLStreamException {
+			int depth = 1;
+			while (depth > 0) {
+				switch (reader.next()) {
+				case XMLStreamConstants.START_ELEMENT:
+					depth++;
+					break;
+				case XMLStreamConstants.END_ELEMENT:
+					depth--;
+					break;
+				default:
+					break;
+				}
+			}
+		}
+
+		/**
+		 * Collects the characters of the current element in the chars of the
+		 * {@link TCFReader} and moves the reader to the end of the element.
+		 */
+		private void readCharacters() throws XMLStreamException {
+			handler.chars.setLength(0);
+			int event;
+			while ((event = reader.next()) != XMLStreamConstants.END_ELEMENT) {
+				if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA || event == XMLStreamConstants.SPACE) {
+					handler.appendCharacters(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+				} else if (event == XMLStreamConstants.START_ELEMENT) {
+					skipElement();
+				}
+			}
+		}
+
+		/** checks whether the reader is positioned on the given element */
+		private boolean isElement(TCFElement element) {
+			return element.getName().equals(reader.getLocalName());
+		}
 	}
 
 }
@@ -0,0 +1,97 @@
+/**
+ * Copyright 2009 Humboldt University of Berlin, INRIA.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.corpus_tools.peppermodules.tcfModules;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * This class contains the keys of the meta annotations {@link TCFMapperImport}
+ * creates for the CMDI meta data of a TCF document. All keys are built once.
+ * Keys containing a running number are composed of a prefix, the number and a
+ * suffix, which are given here.
+ */
+final class TCFMetaKeys implements TCFDictionary {
+	/** separates the levels of a key */
+	static final String CLN = ":";
+
+	/* prefixes */
+	/** prefix of all keys of the general info */
+	static final String GENERAL_INFO = TAG_WEBSERVICETOOLCHAIN + CLN + TAG_GENERALINFO + CLN;
+	/** prefix of all keys of the tool chain */
+	static final String TOOLCHAIN = TAG_WEBSERVICETOOLCHAIN + CLN + TAG_TOOLCHAIN + CLN;
+	static final String DESCRIPTION = GENERAL_INFO + TAG_DESCRIPTION;
+	static final String RESOURCENAME = GENERAL_INFO + TAG_RESOURCENAME;
+	static final String RESOURCETITLE = GENERAL_INFO + TAG_RESOURCETITLE;
+	static final String TAG = GENERAL_INFO + TAG_TAG;
+	static final String TOOLINCHAIN = TOOLCHAIN + TAG_TOOLINCHAIN;
+	static final String ISPARTOF = TAG_ISPARTOFLIST + CLN + TAG_ISPARTOF;
+
+	/* suffixes */
+	static final String LANG = CLN + ATT_LANG;
+	static final String TYPE = CLN + ATT_TYPE;
+	static final String NAME = CLN + ATT_NAME;
+	static final String VALUE = CLN + ATT_VALUE;
+	static final String COMPONENTID = CLN + ATT_COMPONENTID;
+	static final String PID = CLN + TAG_PID;
+	static final String PARAMETER = CLN + TAG_PARAMETER;
+	static final String MIMETYPE = TAG_RESOURCETYPE + CLN + ATT_MIMETYPE;
+	static final String RELATIONTYPE = CLN + TAG_RELATIONTYPE;
+	static final String RES1 = CLN + TAG_RES1;
+	static final String RES2 = CLN + TAG_RES2;
+
+	/* complete keys */
+	static final String TOOLCHAIN_COMPONENTID = TOOLCHAIN + ATT_COMPONENTID;
+	static final String GENERAL_INFO_COMPONENTID = GENERAL_INFO + ATT_COMPONENTID;
+	static final String DESCRIPTIONS = GENERAL_INFO + TAG_DESCRIPTIONS;
+	static final String VERSION_LANG = GENERAL_INFO + TAG_VERSION + LANG;
+	static final String LOCATION_COMPONENTID = GENERAL_INFO + TAG_LOCATION + COMPONENTID;
+	static final String ADDRESS_LANG = GENERAL_INFO + TAG_ADDRESS + LANG;
+	static final String REGION_LANG = GENERAL_INFO + TAG_REGION + LANG;
+	static final String CONTINENTNAME_LANG = GENERAL_INFO + TAG_CONTINENTNAME + LANG;
+	static final String COUNTRYNAME_LANG = GENERAL_INFO + TAG_COUNTRY + CLN + TAG_COUNTRYNAME + LANG;
+	static final String COUNTRY_COMPONENTID = GENERAL_INFO + TAG_COUNTRY + COMPONENTID;
+	static final String TAGS_COMPONENTID = GENERAL_INFO + TAG_TAGS + COMPONENTID;
+
+	/** keys of the meta annotations taking the text of an element */
+	private static final Map<TCFElement, String> VALUE_KEYS = new EnumMap<TCFElement, String>(TCFElement.class);
+
+	static {
+		for (TCFElement element : new TCFElement[] { TCFElement.VERSION, TCFElement.LIFECYCLESTATUS, TCFElement.STARTYEAR, TCFElement.COMPLETIONYEAR, TCFElement.PUBLICATIONDATE, TCFElement.LASTUPDATE, TCFElement.TIMECOVERAGE, TCFElement.LEGALOWNER, TCFElement.GENRE }) {
+			VALUE_KEYS.put(element, GENERAL_INFO + element.getName());
+		}
+		for (TCFElement element : new TCFElement[] { TCFElement.ADDRESS, TCFElement.REGION, TCFElement.CONTINENTNAME }) {
+			VALUE_KEYS.put(element, GENERAL_INFO + TAG_LOCATION + CLN + element.getName());
+		}
+		for (TCFElement element : new TCFElement[] { TCFElement.COUNTRYNAME, TCFElement.COUNTRYCODING }) {
+			VALUE_KEYS.put(element, GENERAL_INFO + TAG_LOCATION + CLN + TAG_COUNTRY + CLN + element.getName());
+		}
+	}
+
+	private TCFMetaKeys() {
+	}
+
+	/**
+	 * @return the key of the meta annotation taking the text of the given
+	 *         element or null, if the element's text is not stored under a
+	 *         fixed key
+	 */
+	static String getValueKey(TCFElement element) {
+		return VALUE_KEYS.get(element);
+	}
+}
@@ -0,0 +1,81 @@
+/**
+ * Copyright 2009 Humboldt University of Berlin, INRIA.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.corpus_tools.peppermodules.tcfModules;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+/**
+ * This class provides the {@link XMLStreamWriter}s and buffers used by
+ * {@link TCFMapperExport}. An instance is shared by all mappers of a
+ * {@link TCFExporter}, so the {@link XMLOutputFactory} is only looked up
+ * once, and each thread keeps a buffer, which is borrowed by a mapper and
+ * returned when the document is written. This class is thread-safe.
+ */
+class TCFWriterFactory {
+	/** buffers, which grew beyond this size, are not kept for reuse */
+	private static final int MAX_BUFFER_SIZE = 4 * 1024 * 1024;
+	/** the factory creating all writers */
+	private final XMLOutputFactory factory;
+	/** the buffer of each thread, which is not borrowed at the moment */
+	private final ThreadLocal<ByteArrayOutputStream> buffers;
+
+	public TCFWriterFactory() {
+		factory = XMLOutputFactory.newFactory();
+		buffers = new ThreadLocal<ByteArrayOutputStream>();
+	}
+
+	/**
+	 * This method creates a writer. The creation is synchronized, since an
+	 * {@link XMLOutputFactory} is not guaranteed to be thread-safe.
+	 * 
+	 * @param encoding
+	 *            the encoding or null for the default of the factory
+	 */
+	public XMLStreamWriter createXMLStreamWriter(OutputStream out, String encoding) throws XMLStreamException {
+		synchronized (factory) {
+			return encoding == null ? factory.createXMLStreamWriter(out) : factory.createXMLStreamWriter(out, encoding);
+		}
+	}
+
+	/**
+	 * This method returns an empty buffer, which has to be returned by
+	 * {@link #returnBuffer(ByteArrayOutputStream)}, when it is not needed
+	 * anymore.
+	 */
+	public ByteArrayOutputStream borrowBuffer() {
+		ByteArrayOutputStream buffer = buffers.get();
+		if (buffer == null) {
+			return new ByteArrayOutputStream();
+		}
+		buffers.remove();
+		return buffer;
+	}
+
+	/** This method returns a borrowed buffer to the current thread. */
+	public void returnBuffer(ByteArrayOutputStream buffer) {
+		if (buffer.size() <= MAX_BUFFER_SIZE) {
+			buffer.reset();
+			buffers.set(buffer);
+		}
+	}
+}
@@ -0,0 +1,119 @@
+/**
+ * Copyright 2009 Humboldt University of Berlin, INRIA.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.corpus_tools.peppermodules.tcfModules;
+
+import org.corpus_tools.salt.common.STextualDS;
+
+/**
+ * This class aligns the tokens of a TCF document with the primary text of an
+ * {@link STextualDS}. Tokens are searched from the end of the previous token
+ * on, skipping at most the whitespaces in between. All comparisons are done
+ * in place on the primary text, so aligning a token does not copy any part of
+ * the text.
+ */
+class TokenAligner {
+	/** the primary text the tokens are aligned with */
+	private final String text;
+	/**
+	 * number of whitespaces at the end of the primary text, they are part of
+	 * the look ahead of each token
+	 */
+	private final int trailingWhitespaces;
+	/** This is the pointer used for the tokenization process. */
+	private int p;
+
+	public TokenAligner(String text) {
+		this.text = text;
+		int end = text.length();
+		while (end > 0 && isWhitespace(text.charAt(end - 1))) {
+			end--;
+		}
+		trailingWhitespaces = text.length() - end;
+		p = 0;
+	}
+
+	/**
+	 * This method searches the given token in the primary text starting at the
+	 * current position. The token has to start within the whitespaces
+	 * following the current position. In case the token was found, the
+	 * position is moved behind the token.
+	 *
+	 * @param tok
+	 *            the text of the token
+	 * @return the start offset of the token in the primary text or -1, if the
+	 *         token could not be found
+	 */
+	public int align(CharSequence tok) {
+		final int length = text.length();
+		int lookAhead = getLookAhead() + 1;
+		int old_p = p;
+		while (p < length && (p - old_p) <= lookAhead && !matches(tok, p)) {
+			p++;
+		}
+		if (p == length || (p - old_p) > lookAhead) {
+			p = old_p;
+			return -1;
+		}
+		int start = p;
+		p += tok.length();
+		return start;
+	}
+
+	/** returns the current position in the primary text */
+	public int getPosition() {
+		return p;
+	}
+
+	/**
+	 * returns the number of whitespaces, which are trimmed from the rest of the
+	 * primary text starting at the current position
+	 */
+	private int getLookAhead() {
+		final int length = text.length();
+		int i = p;
+		while (i < length && isWhitespace(text.charAt(i))) {
+			i++;
+		}
+		if (i == length) {
+			/* the rest of the text consists of whitespaces only */
+			return length - p;
+		}
+		return (i - p) + trailingWhitespaces;
+	}
+
+	/**
+	 * checks whether the token occurs in the primary text at the given offset
+	 */
+	private boolean matches(CharSequence tok, int offset) {
+		final int tokLength = tok.length();
+		if (offset + tokLength > text.length()) {
+			return false;
+		}
+		for (int i = 0; i < tokLength; i++) {
+			if (text.charAt(offset + i) != tok.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/** same definition of whitespaces as used by {@link String#trim()} */
+	private static boolean isWhitespace(char c) {
+		return c <= ' ';
+	}
+}
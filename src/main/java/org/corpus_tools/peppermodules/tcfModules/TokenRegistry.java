@@ -0,0 +1,209 @@
+/**
+ * Copyright 2009 Humboldt University of Berlin, INRIA.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.corpus_tools.peppermodules.tcfModules;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.corpus_tools.salt.common.SToken;
+
+/**
+ * This class keeps the {@link SToken}s of a TCF document in the order of
+ * their occurrence in &lt;tc:tokens&gt;. TCF tools usually number their
+ * tokens, e.g. "t_0", "t_1", ... or "t1", "t2", .... The prefix and the
+ * number of the first token are remembered, so that the id of a token
+ * following this scheme is resolved by parsing its number, without hashing
+ * the id. Only ids not following the scheme are kept in a map.
+ */
+class TokenRegistry {
+	/** ids with more digits are not parsed to avoid an overflow */
+	private static final int MAX_DIGITS = 9;
+	/** the tokens in the order of their registration */
+	private SToken[] tokens;
+	/** the number of registered tokens */
+	private int size;
+	/** the prefix of the first registered id */
+	private String prefix;
+	/** the number of the first registered id */
+	private int offset;
+	/** marks the positions of tokens, whose ids do not follow the scheme */
+	private final BitSet irregular;
+	/** maps ids not following the scheme to their position */
+	private final Map<String, Integer> irregularIds;
+
+	public TokenRegistry() {
+		tokens = new SToken[64];
+		size = 0;
+		prefix = null;
+		offset = 0;
+		irregular = new BitSet();
+		irregularIds = new HashMap<String, Integer>();
+	}
+
+	/**
+	 * This method appends the given token. In case the id is already in use,
+	 * it refers to the given token from now on.
+	 *
+	 * @param id
+	 *            the TCF id of the token or null, if it has none
+	 * @param sToken
+	 *            the token
+	 * @return the position of the token
+	 */
+	public int add(String id, SToken sToken) {
+		if (size == tokens.length) {
+			tokens = Arrays.copyOf(tokens, size * 2);
+		}
+		int previous = indexOf(id);
+		if (previous >= 0) {
+			irregular.set(previous);
+		}
+		int position = size++;
+		tokens[position] = sToken;
+		if (id == null) {
+			/* the id is optional, a token without id cannot be referred to */
+			irregular.set(position);
+			return position;
+		}
+		if (position == 0) {
+			int numberStart = getNumberStart(id);
+			if (numberStart >= 0) {
+				prefix = id.substring(0, numberStart);
+				offset = Integer.parseInt(id.substring(numberStart));
+			}
+		}
+		if (prefix == null || parsePosition(id) != position) {
+			irregular.set(position);
+			irregularIds.put(id, position);
+		}
+		return position;
+	}
+
+	/**
+	 * @param id
+	 *            the TCF id of a token
+	 * @return the position of the token or -1, if there is no token with this
+	 *         id
+	 */
+	public int indexOf(String id) {
+		if (id == null) {
+			return -1;
+		}
+		return indexOf(id, 0, id.length());
+	}
+
+	/**
+	 * This method resolves an id, which is part of a list of ids, e.g. the
+	 * value of a tokenIDs attribute. Ids following the scheme are resolved
+	 * without extracting them from the list.
+	 *
+	 * @param ids
+	 *            the list containing the id
+	 * @param start
+	 *            the start of the id in the list
+	 * @param end
+	 *            the end of the id in the list (exclusive)
+	 * @return the position of the token or -1, if there is no token with this
+	 *         id
+	 */
+	public int indexOf(String ids, int start, int end) {
+		int position = prefix == null ? -1 : parsePosition(ids, start, end);
+		if (position >= 0 && position < size && !irregular.get(position)) {
+			return position;
+		}
+		if (irregularIds.isEmpty()) {
+			return -1;
+		}
+		Integer irregularPosition = irregularIds.get(ids.substring(start, end));
+		return irregularPosition == null ? -1 : irregularPosition;
+	}
+
+	/**
+	 * @param id
+	 *            the TCF id of a token
+	 * @return the token or null, if there is no token with this id
+	 */
+	public SToken get(String id) {
+		int position = indexOf(id);
+		return position < 0 ? null : tokens[position];
+	}
+
+	/** returns the token at the given position */
+	public SToken get(int position) {
+		return tokens[position];
+	}
+
+	/** returns the number of registered tokens */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * This method computes the position an id refers to following the scheme
+	 * of the first id.
+	 *
+	 * @return the position or -1, if the id does not follow the scheme
+	 */
+	private int parsePosition(String id) {
+		return parsePosition(id, 0, id.length());
+	}
+
+	/**
+	 * This method computes the position the id between start and end refers
+	 * to following the scheme of the first id.
+	 *
+	 * @return the position or -1, if the id does not follow the scheme
+	 */
+	private int parsePosition(String ids, int start, int end) {
+		int numberStart = start + prefix.length();
+		if (end <= numberStart || end - numberStart > MAX_DIGITS || !ids.regionMatches(start, prefix, 0, prefix.length())) {
+			return -1;
+		}
+		if (ids.charAt(numberStart) == '0' && end > numberStart + 1) {
+			/* leading zeros are not canonical */
+			return -1;
+		}
+		int number = 0;
+		for (int i = numberStart; i < end; i++) {
+			char c = ids.charAt(i);
+			if (c < '0' || c > '9') {
+				return -1;
+			}
+			number = number * 10 + (c - '0');
+		}
+		return number - offset;
+	}
+
+	/**
+	 * @return the start of the canonical number at the end of the given id or
+	 *         -1, if the id does not end with a number
+	 */
+	private static int getNumberStart(String id) {
+		int i = id.length();
+		while (i > 0 && id.charAt(i - 1) >= '0' && id.charAt(i - 1) <= '9') {
+			i--;
+		}
+		int digits = id.length() - i;
+		if (digits == 0 || digits > MAX_DIGITS || (digits > 1 && id.charAt(i) == '0')) {
+			return -1;
+		}
+		return i;
+	}
+}
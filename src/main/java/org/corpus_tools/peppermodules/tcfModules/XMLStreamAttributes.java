@@ -0,0 +1,124 @@
+/**
+ * Copyright 2009 Humboldt University of Berlin, INRIA.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.corpus_tools.peppermodules.tcfModules;
+
+import javax.xml.stream.XMLStreamReader;
+
+import org.xml.sax.Attributes;
+
+/**
+ * This class provides the attributes of the current start element of an
+ * {@link XMLStreamReader} as SAX {@link Attributes}. This way the handler
+ * methods of the SAX based import can be reused for the StAX based import. No
+ * attribute is copied, so the values are only valid as long as the reader is
+ * positioned on the start element.
+ */
+class XMLStreamAttributes implements Attributes {
+	/** the reader providing the attributes */
+	private final XMLStreamReader reader;
+
+	public XMLStreamAttributes(XMLStreamReader reader) {
+		this.reader = reader;
+	}
+
+	@Override
+	public int getLength() {
+		return reader.getAttributeCount();
+	}
+
+	@Override
+	public String getURI(int index) {
+		String uri = reader.getAttributeNamespace(index);
+		return uri == null ? "" : uri;
+	}
+
+	@Override
+	public String getLocalName(int index) {
+		return reader.getAttributeLocalName(index);
+	}
+
+	@Override
+	public String getQName(int index) {
+		String prefix = reader.getAttributePrefix(index);
+		if (prefix == null || prefix.isEmpty()) {
+			return reader.getAttributeLocalName(index);
+		}
+		return prefix + ":" + reader.getAttributeLocalName(index);
+	}
+
+	@Override
+	public String getType(int index) {
+		return reader.getAttributeType(index);
+	}
+
+	@Override
+	public String getValue(int index) {
+		return reader.getAttributeValue(index);
+	}
+
+	@Override
+	public int getIndex(String uri, String localName) {
+		for (int i = 0; i < reader.getAttributeCount(); i++) {
+			if (localName.equals(reader.getAttributeLocalName(i)) && uri.equals(getURI(i))) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public int getIndex(String qName) {
+		int sep = qName.indexOf(':');
+		for (int i = 0; i < reader.getAttributeCount(); i++) {
+			String prefix = reader.getAttributePrefix(i);
+			boolean unprefixed = prefix == null || prefix.isEmpty();
+			if (sep < 0) {
+				if (unprefixed && qName.equals(reader.getAttributeLocalName(i))) {
+					return i;
+				}
+			} else if (!unprefixed && qName.equals(getQName(i))) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public String getType(String uri, String localName) {
+		int index = getIndex(uri, localName);
+		return index < 0 ? null : getType(index);
+	}
+
+	@Override
+	public String getType(String qName) {
+		int index = getIndex(qName);
+		return index < 0 ? null : getType(index);
+	}
+
+	@Override
+	public String getValue(String uri, String localName) {
+		int index = getIndex(uri, localName);
+		return index < 0 ? null : getValue(index);
+	}
+
+	@Override
+	public String getValue(String qName) {
+		int index = getIndex(qName);
+		return index < 0 ? null : getValue(index);
+	}
+}
@@ -0,0 +1,484 @@
+/**
+ * Copyright 2009 Humboldt University of Berlin, INRIA.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.corpus_tools.peppermodules.TCFModules.tests;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.EnumMap;
+import java.util.Map;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.corpus_tools.peppermodules.tcfModules.TCFDictionary;
+
+/**
+ * This class writes synthetic TCF 0.4 documents of any size for scale tests
+ * and benchmarks. The text consists of sentences of a fixed length, each
+ * ending with a full stop. Every layer can be switched on or off, for most
+ * layers a ratio controls how many tokens or sentences are annotated. Which
+ * tokens or sentences are annotated is derived from the seed and the
+ * position, so the same generator always writes the same document.
+ * <p>
+ * The document is written element by element and no layer is kept in
+ * memory, so the size of the document is only limited by the disk.
+ * </p>
+ */
+public class TCFGenerator {
+	/** the layers the generator can write besides the primary text */
+	public enum Layer {
+		/** the tokens, all other layers require them */
+		TOKENS,
+		/** the sentences */
+		SENTENCES,
+		/** a POS tag for the given ratio of tokens */
+		POSTAGS,
+		/** a lemma for the given ratio of tokens */
+		LEMMAS,
+		/** a morphological analysis for the given ratio of tokens */
+		MORPHOLOGY,
+		/** named entities starting at the given ratio of tokens */
+		NAMEDENTITIES,
+		/**
+		 * mentions for the given ratio of tokens, consecutive mentions form
+		 * chains of {@link TCFGenerator#CHAIN_LENGTH}
+		 */
+		REFERENCES,
+		/** a dependency tree for the given ratio of sentences */
+		DEPPARSING,
+		/**
+		 * a right-branching constituent tree for the given ratio of sentences
+		 */
+		PARSING,
+		/** pages and lines */
+		TEXTSTRUCTURE
+	}
+
+	/** the number of mentions of an entity */
+	public static final int CHAIN_LENGTH = 3;
+	/** the number of tokens of a line */
+	public static final int LINE_LENGTH = 5;
+	/** the number of tokens of a page */
+	public static final int PAGE_LENGTH = 50;
+	/** the words the tokens are made of */
+	private static final String[] WORDS = { "Bergleute", "arbeiten", "in", "Böhmen", "drei", "lange", "Jahre", "und", "graben", "Erz" };
+	/** the POS tags of {@link #WORDS} */
+	private static final String[] TAGS = { "NN", "VVFIN", "APPR", "NE", "CARD", "ADJA", "NN", "KON", "VVFIN", "NN" };
+
+	/** the number of tokens */
+	private final long tokens;
+	/** the ratios of the layers, layers not contained are not written */
+	private final Map<Layer, Double> ratios;
+	/** the number of tokens of a sentence */
+	private int sentenceLength;
+	/** the seed the annotated tokens and sentences are derived from */
+	private long seed;
+
+	/**
+	 * creates a generator for documents with the given number of tokens, all
+	 * layers are switched on, each token and each sentence is annotated
+	 */
+	public TCFGenerator(long tokens) {
+		this.tokens = tokens;
+		ratios = new EnumMap<Layer, Double>(Layer.class);
+		for (Layer layer : Layer.values()) {
+			ratios.put(layer, 1.0);
+		}
+		sentenceLength = 10;
+		seed = 0;
+	}
+
+	/**
+	 * sets the ratio of tokens or sentences annotated in the given layer, a
+	 * ratio of 0 switches the layer off. For the tokens, the sentences and
+	 * the text structure only 0 and 1 make a difference.
+	 */
+	public TCFGenerator setRatio(Layer layer, double ratio) {
+		if (ratio <= 0) {
+			ratios.remove(layer);
+		} else {
+			ratios.put(layer, Math.min(ratio, 1.0));
+		}
+		return this;
+	}
+
+	/** switches the given layers off */
+	public TCFGenerator disable(Layer... layers) {
+		for (Layer layer : layers) {
+			ratios.remove(layer);
+		}
+		return this;
+	}
+
+	/** sets the number of tokens of a sentence, the default is 10 */
+	public TCFGenerator setSentenceLength(int sentenceLength) {
+		if (sentenceLength < 1) {
+			throw new IllegalArgumentException("A sentence needs at least one token.");
+		}
+		this.sentenceLength = sentenceLength;
+		return this;
+	}
+
+	/** sets the seed the annotated tokens and sentences are derived from */
+	public TCFGenerator setSeed(long seed) {
+		this.seed = seed;
+		return this;
+	}
+
+	/** writes the document to the given file */
+	public void write(File file) throws IOException {
+		OutputStream out = new BufferedOutputStream(new FileOutputStream(file), 1 << 16);
+		try {
+			write(out);
+		} finally {
+			out.close();
+		}
+	}
+
+	/** writes the document to the given stream, which is not closed */
+	public void write(OutputStream out) throws IOException {
+		try {
+			XMLStreamWriter w = XMLOutputFactory.newFactory().createXMLStreamWriter(out, "UTF-8");
+			w.writeStartDocument("UTF-8", "1.0");
+			w.writeProcessingInstruction(TCFDictionary.TCF_PI);
+			w.writeStartElement(TCFDictionary.NS_WL, TCFDictionary.TAG_WL_D_SPIN, TCFDictionary.NS_VALUE_WL);
+			w.writeNamespace(TCFDictionary.NS_MD, TCFDictionary.NS_VALUE_MD);
+			w.writeNamespace(TCFDictionary.NS_TC, TCFDictionary.NS_VALUE_TC);
+			w.writeNamespace(TCFDictionary.NS_WL, TCFDictionary.NS_VALUE_WL);
+			w.writeAttribute(TCFDictionary.ATT_VERSION, "0.4");
+			w.writeEmptyElement(TCFDictionary.NS_MD, TCFDictionary.TAG_MD_METADATA, TCFDictionary.NS_VALUE_MD);
+			w.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_TEXTCORPUS, TCFDictionary.NS_VALUE_TC);
+			w.writeAttribute(TCFDictionary.ATT_LANG, "de");
+			writeText(w);
+			if (ratios.containsKey(Layer.TOKENS)) {
+				writeTokens(w);
+				if (ratios.containsKey(Layer.SENTENCES)) {
+					writeSentences(w);
+				}
+				if (ratios.containsKey(Layer.LEMMAS)) {
+					writeLemmas(w);
+				}
+				if (ratios.containsKey(Layer.POSTAGS)) {
+					writePOSTags(w);
+				}
+				if (ratios.containsKey(Layer.MORPHOLOGY)) {
+					writeMorphology(w);
+				}
+				if (ratios.containsKey(Layer.NAMEDENTITIES)) {
+					writeNamedEntities(w);
+				}
+				if (ratios.containsKey(Layer.REFERENCES)) {
+					writeReferences(w);
+				}
+				if (ratios.containsKey(Layer.PARSING)) {
+					writeParsing(w);
+				}
+				if (ratios.containsKey(Layer.DEPPARSING)) {
+					writeDepparsing(w);
+				}
+				if (ratios.containsKey(Layer.TEXTSTRUCTURE)) {
+					writeTextstructure(w);
+				}
+			}
+			w.writeEndElement();// end of textcorpus
+			w.writeEndElement();// end of d-spin
+			w.writeEndDocument();
+			w.flush();
+		} catch (XMLStreamException e) {
+			throw new IOException("Could not write synthetic TCF document.", e);
+		}
+	}
+
+	private void writeText(XMLStreamWriter w) throws XMLStreamException {
+		w.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_TEXT, TCFDictionary.NS_VALUE_TC);
+		for (long i = 0; i < tokens; i++) {
+			if (i > 0) {
+				w.writeCharacters(" ");
+			}
+			w.writeCharacters(getWord(i));
+		}
+		w.writeEndElement();
+	}
+
+	private void writeTokens(XMLStreamWriter w) throws XMLStreamException {
+		w.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_TOKENS, TCFDictionary.NS_VALUE_TC);
+		for (long i = 0; i < tokens; i++) {
+			w.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_TOKEN, TCFDictionary.NS_VALUE_TC);
+			w.writeAttribute(TCFDictionary.ATT_ID, getTokenID(i));
+			w.writeCharacters(getWord(i));
+			w.writeEndElement();
+		}
+		w.writeEndElement();
+	}
+
+	private void writeSentences(XMLStreamWriter w) throws XMLStreamException {
+		w.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_SENTENCES, TCFDictionary.NS_VALUE_TC);
+		StringBuilder tokenIDs = new StringBuilder();
+		for (long s = 0; s * sentenceLength < tokens; s++) {
+			tokenIDs.setLength(0);
+			for (long i = s * sentenceLength; i < getSentenceEnd(s); i++) {
+				tokenIDs.append(tokenIDs.length() == 0 ? "" : " ").append(getTokenID(i));
+			}
+			w.writeEmptyElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_SENTENCE, TCFDictionary.NS_VALUE_TC);
+			w.writeAttribute(TCFDictionary.ATT_ID, "s_" + s);
+			w.writeAttribute(TCFDictionary.ATT_TOKENIDS, tokenIDs.toString());
+		}
+		w.writeEndElement();
+	}
+
+	private void writeLemmas(XMLStreamWriter w) throws XMLStreamException {
+		w.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_LEMMAS, TCFDictionary.NS_VALUE_TC);
+		for (long i = 0; i < tokens; i++) {
+			if (isAnnotated(Layer.LEMMAS, i)) {
+				w.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_LEMMA, TCFDictionary.NS_VALUE_TC);
+				w.writeAttribute(TCFDictionary.ATT_ID, "le_" + i);
+				w.writeAttribute(TCFDictionary.ATT_TOKENIDS, getTokenID(i));
+				w.writeCharacters(getWord(i).toLowerCase());
+				w.writeEndElement();
+			}
+		}
+		w.writeEndElement();
+	}
+
+	private void writePOSTags(XMLStreamWriter w) throws XMLStreamException {
+		w.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_POSTAGS, TCFDictionary.NS_VALUE_TC);
+		w.writeAttribute(TCFDictionary.ATT_TAGSET, "STTS");
+		for (long i = 0; i < tokens; i++) {
+			if (isAnnotated(Layer.POSTAGS, i)) {
+				w.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_TAG, TCFDictionary.NS_VALUE_TC);
+				w.writeAttribute(TCFDictionary.ATT_ID, "pt_" + i);
+				w.writeAttribute(TCFDictionary.ATT_TOKENIDS, getTokenID(i));
+				w.writeCharacters(getTag(i));
+				w.writeEndElement();
+			}
+		}
+		w.writeEndElement();
+	}
+
+	private void writeMorphology(XMLStreamWriter w) throws XMLStreamException {
+		w.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_MORPHOLOGY, TCFDictionary.NS_VALUE_TC);
+		for (long i = 0; i < tokens; i++) {
+			if (isAnnotated(Layer.MORPHOLOGY, i)) {
+				w.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_ANALYSIS, TCFDictionary.NS_VALUE_TC);
+				w.writeAttribute(TCFDictionary.ATT_TOKENIDS, getTokenID(i));
+				w.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_TAG, TCFDictionary.NS_VALUE_TC);
+				w.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_FS, TCFDictionary.NS_VALUE_TC);
+				writeFeature(w, "cat", getTag(i));
+				writeFeature(w, "number", i % 2 == 0 ? "singular" : "plural");
+				w.writeEndElement();// end of fs
+				w.writeEndElement();// end of tag
+				w.writeEndElement();// end of analysis
+			}
+		}
+		w.writeEndElement();
+	}
+
+	private static void writeFeature(XMLStreamWriter w, String name, String value) throws XMLStreamException {
+		w.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_F, TCFDictionary.NS_VALUE_TC);
+		w.writeAttribute(TCFDictionary.ATT_NAME, name);
+		w.writeCharacters(value);
+		w.writeEndElement();
+	}
+
+	/**
+	 * writes named entities of one or two tokens, they do not overlap and do
+	 * not cross sentence boundaries
+	 */
+	private void writeNamedEntities(XMLStreamWriter w) throws XMLStreamException {
+		w.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_NAMEDENTITIES, TCFDictionary.NS_VALUE_TC);
+		w.writeAttribute(TCFDictionary.ATT_TYPE, "CoNLL2002");
+		for (long i = 0; i < tokens; i++) {
+			if (!isSentenceFinal(i) && isAnnotated(Layer.NAMEDENTITIES, i)) {
+				boolean twoTokens = !isSentenceFinal(i + 1) && i % 3 == 0;
+				w.writeEmptyElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_ENTITY, TCFDictionary.NS_VALUE_TC);
+				w.writeAttribute(TCFDictionary.ATT_ID, "ne_" + i);
+				w.writeAttribute(TCFDictionary.ATT_CLASS, i % 2 == 0 ? "PER" : "LOC");
+				w.writeAttribute(TCFDictionary.ATT_TOKENIDS, twoTokens ? getTokenID(i) + " " + getTokenID(i + 1) : getTokenID(i));
+				if (twoTokens) {
+					i++;
+				}
+			}
+		}
+		w.writeEndElement();
+	}
+
+	/**
+	 * writes mentions of single tokens, each mention refers to the previous
+	 * mention of its entity
+	 */
+	private void writeReferences(XMLStreamWriter w) throws XMLStreamException {
+		w.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_REFERENCES, TCFDictionary.NS_VALUE_TC);
+		w.writeAttribute(TCFDictionary.ATT_TYPETAGSET, "unknown");
+		w.writeAttribute(TCFDictionary.ATT_RELTAGSET, "unknown");
+		int mentions = 0;
+		String antecedent = null;
+		for (long i = 0; i < tokens; i++) {
+			if (!isSentenceFinal(i) && isAnnotated(Layer.REFERENCES, i)) {
+				if (mentions == 0) {
+					w.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_ENTITY, TCFDictionary.NS_VALUE_TC);
+				}
+				String id = "rc_" + i;
+				w.writeEmptyElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_REFERENCE, TCFDictionary.NS_VALUE_TC);
+				w.writeAttribute(TCFDictionary.ATT_ID, id);
+				w.writeAttribute(TCFDictionary.ATT_TOKENIDS, getTokenID(i));
+				w.writeAttribute(TCFDictionary.ATT_MINTOKIDS, getTokenID(i));
+				w.writeAttribute(TCFDictionary.ATT_TYPE, mentions == 0 ? "name" : "pronoun");
+				if (antecedent != null) {
+					w.writeAttribute(TCFDictionary.ATT_REL, "anaphoric");
+					w.writeAttribute(TCFDictionary.ATT_TARGET, antecedent);
+				}
+				antecedent = id;
+				if (++mentions == CHAIN_LENGTH) {
+					w.writeEndElement();// end of entity
+					mentions = 0;
+					antecedent = null;
+				}
+			}
+		}
+		if (mentions > 0) {
+			w.writeEndElement();// end of entity
+		}
+		w.writeEndElement();
+	}
+
+	/**
+	 * writes right-branching trees, each token but the last one of a sentence
+	 * starts a new constituent dominating the rest of the sentence
+	 */
+	private void writeParsing(XMLStreamWriter w) throws XMLStreamException {
+		w.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_PARSING, TCFDictionary.NS_VALUE_TC);
+		w.writeAttribute(TCFDictionary.ATT_TAGSET, "tiger");
+		long c = 0;
+		for (long s = 0; s * sentenceLength < tokens; s++) {
+			if (isAnnotated(Layer.PARSING, s)) {
+				w.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_PARSE, TCFDictionary.NS_VALUE_TC);
+				w.writeAttribute(TCFDictionary.ATT_ID, "p_" + s);
+				long end = getSentenceEnd(s);
+				int depth = 0;
+				for (long i = s * sentenceLength; i < end; i++) {
+					if (depth == 0 || i < end - 1) {
+						w.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_CONSTITUENT, TCFDictionary.NS_VALUE_TC);
+						w.writeAttribute(TCFDictionary.ATT_ID, "c_" + c++);
+						w.writeAttribute(TCFDictionary.ATT_CAT, depth == 0 ? "S" : "VP");
+						depth++;
+					}
+					w.writeEmptyElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_CONSTITUENT, TCFDictionary.NS_VALUE_TC);
+					w.writeAttribute(TCFDictionary.ATT_ID, "c_" + c++);
+					w.writeAttribute(TCFDictionary.ATT_CAT, getTag(i));
+					w.writeAttribute(TCFDictionary.ATT_TOKENIDS, getTokenID(i));
+				}
+				for (; depth > 0; depth--) {
+					w.writeEndElement();// end of constituent
+				}
+				w.writeEndElement();// end of parse
+			}
+		}
+		w.writeEndElement();
+	}
+
+	/**
+	 * writes dependency trees, the first token of a sentence is the root,
+	 * each other token depends on its predecessor
+	 */
+	private void writeDepparsing(XMLStreamWriter w) throws XMLStreamException {
+		w.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_DEPPARSING, TCFDictionary.NS_VALUE_TC);
+		w.writeAttribute(TCFDictionary.ATT_TAGSET, "tiger");
+		w.writeAttribute(TCFDictionary.ATT_EMPTYTOKS, "false");
+		w.writeAttribute(TCFDictionary.ATT_MULTIGOVS, "false");
+		for (long s = 0; s * sentenceLength < tokens; s++) {
+			if (isAnnotated(Layer.DEPPARSING, s)) {
+				w.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_PARSE, TCFDictionary.NS_VALUE_TC);
+				w.writeAttribute(TCFDictionary.ATT_ID, "d_" + s);
+				long start = s * sentenceLength;
+				for (long i = start; i < getSentenceEnd(s); i++) {
+					w.writeEmptyElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_DEPENDENCY, TCFDictionary.NS_VALUE_TC);
+					w.writeAttribute(TCFDictionary.ATT_FUNC, i == start ? "ROOT" : isSentenceFinal(i) ? "--" : "NK");
+					w.writeAttribute(TCFDictionary.ATT_DEPIDS, getTokenID(i));
+					if (i > start) {
+						w.writeAttribute(TCFDictionary.ATT_GOVIDS, getTokenID(i - 1));
+					}
+				}
+				w.writeEndElement();// end of parse
+			}
+		}
+		w.writeEndElement();
+	}
+
+	/** writes pages of {@link #PAGE_LENGTH} and lines of {@link #LINE_LENGTH} */
+	private void writeTextstructure(XMLStreamWriter w) throws XMLStreamException {
+		w.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_TEXTSTRUCTURE, TCFDictionary.NS_VALUE_TC);
+		for (long i = 0; i < tokens; i += LINE_LENGTH) {
+			if (i % PAGE_LENGTH == 0) {
+				writeTextspan(w, i, Math.min(i + PAGE_LENGTH, tokens) - 1, "page");
+			}
+			writeTextspan(w, i, Math.min(i + LINE_LENGTH, tokens) - 1, "line");
+		}
+		w.writeEndElement();
+	}
+
+	private static void writeTextspan(XMLStreamWriter w, long start, long end, String type) throws XMLStreamException {
+		w.writeEmptyElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_TEXTSPAN, TCFDictionary.NS_VALUE_TC);
+		w.writeAttribute(TCFDictionary.ATT_START, getTokenID(start));
+		w.writeAttribute(TCFDictionary.ATT_END, getTokenID(end));
+		w.writeAttribute(TCFDictionary.ATT_TYPE, type);
+	}
+
+	private static String getTokenID(long i) {
+		return "t_" + i;
+	}
+
+	/** returns the end of the given sentence (exclusive) */
+	private long getSentenceEnd(long sentence) {
+		return Math.min((sentence + 1) * sentenceLength, tokens);
+	}
+
+	/** returns true, if the token is the last one of its sentence */
+	private boolean isSentenceFinal(long i) {
+		return i % sentenceLength == sentenceLength - 1 || i == tokens - 1;
+	}
+
+	private String getWord(long i) {
+		return isSentenceFinal(i) ? "." : WORDS[(int) (i % WORDS.length)];
+	}
+
+	private String getTag(long i) {
+		return isSentenceFinal(i) ? "$." : TAGS[(int) (i % TAGS.length)];
+	}
+
+	/**
+	 * This method decides whether the token or sentence at the given position
+	 * is annotated in the given layer. The decision only depends on the seed,
+	 * the layer and the position, so no decision has to be remembered.
+	 */
+	private boolean isAnnotated(Layer layer, long position) {
+		double ratio = ratios.get(layer);
+		if (ratio >= 1.0) {
+			return true;
+		}
+		/* the finalizer of SplitMix64 */
+		long z = seed + (layer.ordinal() + 1) * 0x9E3779B97F4A7C15L + position * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		z = z ^ (z >>> 31);
+		return (z >>> 11) * 0x1.0p-53 < ratio;
+	}
+}
@@ -0,0 +1,77 @@
+/**
+ * Copyright 2009 Humboldt University of Berlin, INRIA.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.corpus_tools.peppermodules.TCFModules.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.corpus_tools.peppermodules.tcfModules.TCFExporterProperties;
+import org.corpus_tools.peppermodules.tcfModules.TCFMapperExport;
+import org.corpus_tools.salt.SaltFactory;
+import org.corpus_tools.salt.common.SDocument;
+import org.eclipse.emf.common.util.URI;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This class runs all tests of {@link TCFMapperExportTest} with the streaming
+ * export of {@link TCFMapperExport}.
+ */
+public class TCFMapperExportStreamingTest extends TCFMapperExportTest {
+	private static final String SNAME_TEST_ENCODING = "ExporterTestEncoding.tcf";
+
+	@Before
+	@Override
+	public void setUp() {
+		super.setUp();
+		getFixture().getProperties().setPropertyValue(TCFExporterProperties.PROP_STREAMING, true);
+	}
+
+	/**
+	 * This method tests, if the primary text is written in UTF-8 and no
+	 * temporary file is left behind.
+	 * 
+	 * @throws IOException
+	 */
+	@Test
+	public void testEncoding() throws IOException {
+		String text = "Glück auf, Bergleute! Ça va?";
+		SDocument sDocument = SaltFactory.createSDocument();
+		sDocument.setName(SNAME_TEST_ENCODING);
+		sDocument.setDocumentGraph(SaltFactory.createSDocumentGraph());
+		sDocument.getDocumentGraph().createTextualDS(text);
+
+		/* setting variables */
+		File folder = new File(System.getProperty("java.io.tmpdir") + "/pepper-test-streaming/");
+		getFixture().setResourceURI(URI.createFileURI(new File(folder, SNAME_TEST_ENCODING).getAbsolutePath()));
+
+		/* start mapper */
+		getFixture().setDocument(sDocument);
+		getFixture().mapSDocument();
+
+		/* tests */
+		String tcf = new String(Files.readAllBytes(new File(getFixture().getResourceURI().toFileString()).toPath()), StandardCharsets.UTF_8);
+		assertTrue(tcf.contains(text));
+		assertEquals(1, folder.list().length);
+	}
+}
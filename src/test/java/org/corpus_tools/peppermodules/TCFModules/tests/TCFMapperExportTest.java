@@ -18,13 +18,20 @@
 package org.corpus_tools.peppermodules.TCFModules.tests;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 import java.io.BufferedReader;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import javax.xml.stream.XMLOutputFactory;
 import javax.xml.stream.XMLStreamException;
@@ -33,11 +40,15 @@ import javax.xml.stream.XMLStreamWriter;
 import org.corpus_tools.peppermodules.tcfModules.TCFDictionary;
 import org.corpus_tools.peppermodules.tcfModules.TCFExporterProperties;
 import org.corpus_tools.peppermodules.tcfModules.TCFMapperExport;
+import org.corpus_tools.peppermodules.tcfModules.TCFMapperImport;
 import org.corpus_tools.salt.SALT_TYPE;
 import org.corpus_tools.salt.SaltFactory;
 import org.corpus_tools.salt.common.SDocument;
 import org.corpus_tools.salt.common.SDocumentGraph;
+import org.corpus_tools.salt.common.SPointingRelation;
 import org.corpus_tools.salt.common.SSpan;
+import org.corpus_tools.salt.common.SStructure;
+import org.corpus_tools.salt.common.STextualDS;
 import org.corpus_tools.salt.common.SToken;
 import org.corpus_tools.salt.samples.SampleGenerator;
 import org.corpus_tools.salt.util.SaltUtil;
@@ -55,6 +66,9 @@ public class TCFMapperExportTest {
 	private static final String SNAME_TEST_SENTENCES = "ExporterTestSentences.tcf";
 	private static final String SNAME_TEST_POS = "ExporterTestPOS.tcf";
 	private static final String SNAME_TEST_LEMMA = "ExporterTestLemma.tcf";
+	private static final String SNAME_TEST_MULTIPLE_TEXTS = "ExporterTestMultipleTexts.tcf";
+	private static final String SNAME_TEST_DEPENDENCIES = "ExporterTestDependencies.tcf";
+	private static final String SNAME_TEST_CONSTITUENTS = "ExporterTestConstituents.tcf";
 
 	public TCFMapperExport getFixture() {
 		return fixture;
@@ -341,6 +355,223 @@ public class TCFMapperExportTest {
 		reader.close();
 	}
 
+	@Test
+	public void testDependencies() throws XMLStreamException, IOException {
+		ByteArrayOutputStream outStream = new ByteArrayOutputStream();
+		XMLOutputFactory o = XMLOutputFactory.newFactory();
+		XMLStreamWriter xmlWriter = o.createXMLStreamWriter(outStream);
+
+		/* creating TCF */
+		writeStartAndPrimaryText(xmlWriter);
+		writeTokens(xmlWriter);
+		xmlWriter.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_SENTENCES, TCFDictionary.NS_VALUE_TC);
+		xmlWriter.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_SENTENCE, TCFDictionary.NS_VALUE_TC);
+		xmlWriter.writeAttribute(TCFDictionary.ATT_ID, "s_1");
+		xmlWriter.writeAttribute(TCFDictionary.ATT_TOKENIDS, "t_1 t_2 t_3 t_4 t_5");
+		xmlWriter.writeEndElement();
+		xmlWriter.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_SENTENCE, TCFDictionary.NS_VALUE_TC);
+		xmlWriter.writeAttribute(TCFDictionary.ATT_ID, "s_2");
+		xmlWriter.writeAttribute(TCFDictionary.ATT_TOKENIDS, "t_6 t_7 t_8 t_9 t_10 t_11");
+		xmlWriter.writeEndElement();
+		xmlWriter.writeEndElement();// end of sentences
+		xmlWriter.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_DEPPARSING, TCFDictionary.NS_VALUE_TC);
+		xmlWriter.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_PARSE, TCFDictionary.NS_VALUE_TC);
+		xmlWriter.writeAttribute(TCFDictionary.ATT_ID, "d_1");
+		xmlWriter.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_DEPENDENCY, TCFDictionary.NS_VALUE_TC);
+		xmlWriter.writeAttribute(TCFDictionary.ATT_FUNC, "SB");
+		xmlWriter.writeAttribute(TCFDictionary.ATT_DEPIDS, "t_3");
+		xmlWriter.writeAttribute(TCFDictionary.ATT_GOVIDS, "t_1");
+		xmlWriter.writeEndElement();
+		xmlWriter.writeEndElement();// end of parse
+		xmlWriter.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_PARSE, TCFDictionary.NS_VALUE_TC);
+		xmlWriter.writeAttribute(TCFDictionary.ATT_ID, "d_2");
+		xmlWriter.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_DEPENDENCY, TCFDictionary.NS_VALUE_TC);
+		xmlWriter.writeAttribute(TCFDictionary.ATT_FUNC, "SB");
+		xmlWriter.writeAttribute(TCFDictionary.ATT_DEPIDS, "t_7");
+		xmlWriter.writeAttribute(TCFDictionary.ATT_GOVIDS, "t_8");
+		xmlWriter.writeEndElement();
+		xmlWriter.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_DEPENDENCY, TCFDictionary.NS_VALUE_TC);
+		xmlWriter.writeAttribute(TCFDictionary.ATT_FUNC, "PUNC");
+		xmlWriter.writeAttribute(TCFDictionary.ATT_DEPIDS, "t_11");
+		xmlWriter.writeAttribute(TCFDictionary.ATT_GOVIDS, "t_8");
+		xmlWriter.writeEndElement();
+		xmlWriter.writeEndElement();// end of parse
+		xmlWriter.writeEndElement();// end of depparsing
+		xmlWriter.writeEndElement();// end of textcorpus
+		xmlWriter.writeEndDocument();
+
+		/* creating SDocument */
+		SDocument sDocument = SaltFactory.createSDocument();
+		sDocument.setName(SNAME_TEST_DEPENDENCIES);
+		SampleGenerator.createPrimaryData(sDocument, SampleGenerator.LANG_EN);
+		SampleGenerator.createTokens(sDocument);
+		SDocumentGraph sDocGraph = sDocument.getDocumentGraph();
+		List<SToken> sTokens = sDocGraph.getSortedTokenByText();
+		SSpan sSpan = sDocGraph.createSpan(sTokens.subList(0, 5));
+		sSpan.createAnnotation(null, "sentence", "sentence");
+		sSpan = sDocGraph.createSpan(sTokens.subList(5, sTokens.size()));
+		sSpan.createAnnotation(null, "sentence", "sentence");
+		/* the dependencies of the second sentence are created first */
+		int[][] dependencies = { { 7, 6 }, { 0, 2 }, { 7, 10 } };
+		String[] funcs = { "SB", "SB", "PUNC" };
+		for (int i = 0; i < dependencies.length; i++) {
+			SPointingRelation sPointingRel = (SPointingRelation) sDocGraph.createRelation(sTokens.get(dependencies[i][0]), sTokens.get(dependencies[i][1]), SALT_TYPE.SPOINTING_RELATION, null);
+			sPointingRel.setType(TCFMapperImport.STYPE_DEPENDENCY);
+			sPointingRel.createAnnotation(TCFMapperImport.LAYER_DEPENDENCIES, TCFDictionary.ATT_FUNC, funcs[i]);
+		}
+
+		/* setting variables */
+		getFixture().setResourceURI(URI.createFileURI(System.getProperty("java.io.tmpdir") + FOLDER_PEPPER_TEST + SNAME_TEST_DEPENDENCIES));
+
+		/* start mapper */
+		getFixture().setDocument(sDocument);
+		getFixture().mapSDocument();
+
+		/* tests */
+		File fixFile = new File(getFixture().getResourceURI().toFileString());
+		BufferedReader reader = new BufferedReader(new FileReader(fixFile));
+		assertEquals(outStream.toString(), reader.readLine());
+		reader.close();
+	}
+
+	/**
+	 * tests a tree (S (NP Is this) (VP example)), whose children are created
+	 * in reverse order
+	 */
+	@Test
+	public void testConstituents() throws XMLStreamException, IOException {
+		ByteArrayOutputStream outStream = new ByteArrayOutputStream();
+		XMLOutputFactory o = XMLOutputFactory.newFactory();
+		XMLStreamWriter xmlWriter = o.createXMLStreamWriter(outStream);
+
+		/* creating TCF */
+		writeStartAndPrimaryText(xmlWriter);
+		writeTokens(xmlWriter);
+		xmlWriter.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_PARSING, TCFDictionary.NS_VALUE_TC);
+		xmlWriter.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_PARSE, TCFDictionary.NS_VALUE_TC);
+		xmlWriter.writeAttribute(TCFDictionary.ATT_ID, "p_1");
+		xmlWriter.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_CONSTITUENT, TCFDictionary.NS_VALUE_TC);
+		xmlWriter.writeAttribute(TCFDictionary.ATT_ID, "c_1");
+		xmlWriter.writeAttribute(TCFDictionary.ATT_CAT, "S");
+		xmlWriter.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_CONSTITUENT, TCFDictionary.NS_VALUE_TC);
+		xmlWriter.writeAttribute(TCFDictionary.ATT_ID, "c_2");
+		xmlWriter.writeAttribute(TCFDictionary.ATT_CAT, "NP");
+		xmlWriter.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_CONSTITUENT, TCFDictionary.NS_VALUE_TC);
+		xmlWriter.writeAttribute(TCFDictionary.ATT_ID, "c_3");
+		xmlWriter.writeAttribute(TCFDictionary.ATT_CAT, "VBZ");
+		xmlWriter.writeAttribute(TCFDictionary.ATT_TOKENIDS, "t_1");
+		xmlWriter.writeEndElement();
+		xmlWriter.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_CONSTITUENT, TCFDictionary.NS_VALUE_TC);
+		xmlWriter.writeAttribute(TCFDictionary.ATT_ID, "c_4");
+		xmlWriter.writeAttribute(TCFDictionary.ATT_CAT, "DT");
+		xmlWriter.writeAttribute(TCFDictionary.ATT_TOKENIDS, "t_2");
+		xmlWriter.writeEndElement();
+		xmlWriter.writeEndElement();// end of NP
+		xmlWriter.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_CONSTITUENT, TCFDictionary.NS_VALUE_TC);
+		xmlWriter.writeAttribute(TCFDictionary.ATT_ID, "c_5");
+		xmlWriter.writeAttribute(TCFDictionary.ATT_CAT, "VP");
+		xmlWriter.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_CONSTITUENT, TCFDictionary.NS_VALUE_TC);
+		xmlWriter.writeAttribute(TCFDictionary.ATT_ID, "c_6");
+		xmlWriter.writeAttribute(TCFDictionary.ATT_CAT, "NN");
+		xmlWriter.writeAttribute(TCFDictionary.ATT_TOKENIDS, "t_3");
+		xmlWriter.writeEndElement();
+		xmlWriter.writeEndElement();// end of VP
+		xmlWriter.writeEndElement();// end of S
+		xmlWriter.writeEndElement();// end of parse
+		xmlWriter.writeEndElement();// end of parsing
+		xmlWriter.writeEndElement();// end of textcorpus
+		xmlWriter.writeEndDocument();
+
+		/* creating SDocument */
+		SDocument sDocument = SaltFactory.createSDocument();
+		sDocument.setName(SNAME_TEST_CONSTITUENTS);
+		SampleGenerator.createPrimaryData(sDocument, SampleGenerator.LANG_EN);
+		SampleGenerator.createTokens(sDocument);
+		SDocumentGraph sDocGraph = sDocument.getDocumentGraph();
+		List<SToken> sTokens = sDocGraph.getSortedTokenByText();
+		String[] cats = { "VBZ", "DT", "NN" };
+		List<SSpan> leaves = new ArrayList<SSpan>();
+		for (int i = 0; i < cats.length; i++) {
+			SSpan sSpan = sDocGraph.createSpan(sTokens.get(i));
+			sSpan.createAnnotation(TCFMapperImport.LAYER_CONSTITUENTS, TCFDictionary.ATT_CAT, cats[i]);
+			leaves.add(sSpan);
+		}
+		SStructure vp = sDocGraph.createStructure(leaves.get(2));
+		vp.createAnnotation(TCFMapperImport.LAYER_CONSTITUENTS, TCFDictionary.ATT_CAT, "VP");
+		SStructure np = sDocGraph.createStructure(leaves.get(1));
+		sDocGraph.createRelation(np, leaves.get(0), SALT_TYPE.SDOMINANCE_RELATION, null);
+		np.createAnnotation(TCFMapperImport.LAYER_CONSTITUENTS, TCFDictionary.ATT_CAT, "NP");
+		SStructure s = sDocGraph.createStructure(vp);
+		sDocGraph.createRelation(s, np, SALT_TYPE.SDOMINANCE_RELATION, null);
+		s.createAnnotation(TCFMapperImport.LAYER_CONSTITUENTS, TCFDictionary.ATT_CAT, "S");
+
+		/* setting variables */
+		getFixture().setResourceURI(URI.createFileURI(System.getProperty("java.io.tmpdir") + FOLDER_PEPPER_TEST + SNAME_TEST_CONSTITUENTS));
+
+		/* start mapper */
+		getFixture().setDocument(sDocument);
+		getFixture().mapSDocument();
+
+		/* tests */
+		File fixFile = new File(getFixture().getResourceURI().toFileString());
+		BufferedReader reader = new BufferedReader(new FileReader(fixFile));
+		assertEquals(outStream.toString(), reader.readLine());
+		reader.close();
+	}
+
+	/**
+	 * tests that a deep right-branching tree is written without running out
+	 * of stack
+	 */
+	@Test
+	public void testDeepConstituentTree() throws XMLStreamException, IOException {
+		final int depth = 20000;
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < depth; i++) {
+			text.append("a ");
+		}
+		SDocument sDocument = SaltFactory.createSDocument();
+		sDocument.setName(SNAME_TEST_CONSTITUENTS);
+		sDocument.setDocumentGraph(SaltFactory.createSDocumentGraph());
+		SDocumentGraph sDocGraph = sDocument.getDocumentGraph();
+		STextualDS sTextualDS = sDocGraph.createTextualDS(text.toString().trim());
+		SStructure parent = null;
+		for (int i = 0; i < depth; i++) {
+			SToken sToken = sDocGraph.createToken(sTextualDS, 2 * i, 2 * i + 1);
+			SStructure sStructure = sDocGraph.createStructure(sToken);
+			sStructure.createAnnotation(TCFMapperImport.LAYER_CONSTITUENTS, TCFDictionary.ATT_CAT, "X");
+			if (parent != null) {
+				sDocGraph.createRelation(parent, sStructure, SALT_TYPE.SDOMINANCE_RELATION, null);
+			}
+			parent = sStructure;
+		}
+
+		/* setting variables */
+		getFixture().setResourceURI(URI.createFileURI(System.getProperty("java.io.tmpdir") + FOLDER_PEPPER_TEST + SNAME_TEST_CONSTITUENTS));
+
+		/* start mapper */
+		getFixture().setDocument(sDocument);
+		getFixture().mapSDocument();
+
+		/* tests */
+		File fixFile = new File(getFixture().getResourceURI().toFileString());
+		BufferedReader reader = new BufferedReader(new FileReader(fixFile));
+		String tcf = reader.readLine();
+		reader.close();
+		String parsing = tcf.substring(tcf.indexOf("<tc:parsing>"), tcf.indexOf("</tc:parsing>"));
+		assertEquals(2 * depth, parsing.split("<tc:constituent ").length - 1);
+		assertEquals(depth, parsing.split("</tc:constituent>").length - 1);
+		assertTrue(parsing.endsWith("tokenIDs=\"t_" + depth + "\"/>" + repeat("</tc:constituent>", depth) + "</tc:parse>"));
+	}
+
+	private static String repeat(String s, int n) {
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < n; i++) {
+			builder.append(s);
+		}
+		return builder.toString();
+	}
+
 	@Test
 	public void testPOS() throws XMLStreamException, IOException {
 		ByteArrayOutputStream outStream = new ByteArrayOutputStream();
@@ -448,4 +679,103 @@ public class TCFMapperExportTest {
 		assertEquals(outStream.toString(), reader.readLine());
 		reader.close();
 	}
+
+	/**
+	 * This method tests, if each of multiple texts is exported to a file of
+	 * its own, which only contains the tokens of this text.
+	 */
+	@Test
+	public void testMultipleTexts() throws XMLStreamException, IOException {
+		String[][] tokens = { { "Good", "luck" }, { "Is", "this", "a", "test", "?" } };
+
+		/* creating SDocument */
+		SDocument sDocument = SaltFactory.createSDocument();
+		sDocument.setName(SNAME_TEST_MULTIPLE_TEXTS);
+		sDocument.setDocumentGraph(SaltFactory.createSDocumentGraph());
+		SDocumentGraph sDocGraph = sDocument.getDocumentGraph();
+		for (String[] textTokens : tokens) {
+			StringBuilder text = new StringBuilder();
+			for (String token : textTokens) {
+				text.append(token).append(" ");
+			}
+			STextualDS sTextualDS = sDocGraph.createTextualDS(text.toString().trim());
+			int start = 0;
+			for (String token : textTokens) {
+				sDocGraph.createToken(sTextualDS, start, start + token.length());
+				start += token.length() + 1;
+			}
+		}
+
+		/* setting variables */
+		getFixture().setResourceURI(URI.createFileURI(System.getProperty("java.io.tmpdir") + FOLDER_PEPPER_TEST + SNAME_TEST_MULTIPLE_TEXTS));
+
+		/* start mapper */
+		getFixture().setDocument(sDocument);
+		getFixture().mapSDocument();
+
+		/* tests */
+		for (int i = 0; i < tokens.length; i++) {
+			ByteArrayOutputStream outStream = new ByteArrayOutputStream();
+			XMLStreamWriter xmlWriter = XMLOutputFactory.newFactory().createXMLStreamWriter(outStream);
+			xmlWriter.writeStartDocument();
+			xmlWriter.writeProcessingInstruction(TCFDictionary.TCF_PI);
+			xmlWriter.writeStartElement(TCFDictionary.NS_WL, TCFDictionary.TAG_WL_D_SPIN, TCFDictionary.NS_VALUE_WL);
+			xmlWriter.writeNamespace(TCFDictionary.NS_ED, TCFDictionary.NS_VALUE_ED);
+			xmlWriter.writeNamespace(TCFDictionary.NS_LX, TCFDictionary.NS_VALUE_LX);
+			xmlWriter.writeNamespace(TCFDictionary.NS_MD, TCFDictionary.NS_VALUE_MD);
+			xmlWriter.writeNamespace(TCFDictionary.NS_TC, TCFDictionary.NS_VALUE_TC);
+			xmlWriter.writeNamespace(TCFDictionary.NS_WL, TCFDictionary.NS_VALUE_WL);
+			xmlWriter.writeAttribute(TCFDictionary.ATT_VERSION, "0.4");
+			xmlWriter.writeStartElement(TCFDictionary.NS_MD, TCFDictionary.TAG_MD_METADATA, TCFDictionary.NS_VALUE_MD);
+			xmlWriter.writeEndElement();
+			xmlWriter.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_TEXTCORPUS, TCFDictionary.NS_VALUE_TC);
+			xmlWriter.writeAttribute(TCFDictionary.ATT_LANG, "x-unspecified");
+			xmlWriter.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_TEXT, TCFDictionary.NS_VALUE_TC);
+			xmlWriter.writeCharacters(sDocGraph.getTextualDSs().get(i).getText());
+			xmlWriter.writeEndElement();
+			xmlWriter.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_TOKENS, TCFDictionary.NS_VALUE_TC);
+			for (int j = 0; j < tokens[i].length; j++) {
+				xmlWriter.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_TOKEN, TCFDictionary.NS_VALUE_TC);
+				xmlWriter.writeAttribute(TCFDictionary.ATT_ID, "t_" + (j + 1));
+				xmlWriter.writeCharacters(tokens[i][j]);
+				xmlWriter.writeEndElement();
+			}
+			xmlWriter.writeEndElement();// end of tokens
+			xmlWriter.writeEndElement();// end of textcorpus
+			xmlWriter.writeEndDocument();
+
+			File fixFile = new File(getFixture().getResourceURI().toFileString() + i + ".tcf");
+			BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(fixFile), "UTF-8"));
+			assertEquals(outStream.toString("UTF-8"), reader.readLine());
+			reader.close();
+		}
+	}
+
+	/**
+	 * This method tests, if multiple texts are exported correctly, when they
+	 * are exported at the same time.
+	 */
+	@Test
+	public void testMultipleTextsParallel() throws XMLStreamException, IOException {
+		getFixture().getProperties().setPropertyValue(TCFExporterProperties.PROP_THREADS, 2);
+		testMultipleTexts();
+	}
+
+	/**
+	 * This method tests, if multiple texts are exported correctly by an
+	 * executor shared with other mappers and if the executor is kept alive
+	 * afterwards.
+	 */
+	@Test
+	public void testMultipleTextsSharedExecutor() throws XMLStreamException, IOException {
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			getFixture().setExecutor(executor);
+			getFixture().getProperties().setPropertyValue(TCFExporterProperties.PROP_THREADS, 2);
+			testMultipleTexts();
+			assertFalse(executor.isShutdown());
+		} finally {
+			executor.shutdown();
+		}
+	}
 }
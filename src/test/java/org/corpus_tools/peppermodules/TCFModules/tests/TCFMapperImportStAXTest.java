@@ -0,0 +1,36 @@
+/**
+ * Copyright 2009 Humboldt University of Berlin, INRIA.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ *
+ */
+package org.corpus_tools.peppermodules.TCFModules.tests;
+
+import org.corpus_tools.peppermodules.tcfModules.TCFImporterProperties;
+import org.corpus_tools.peppermodules.tcfModules.TCFMapperImport;
+import org.junit.Before;
+
+/**
+ * This class runs all tests of {@link TCFMapperImportTest} with the StAX based
+ * import of {@link TCFMapperImport}.
+ */
+public class TCFMapperImportStAXTest extends TCFMapperImportTest {
+
+	@Before
+	@Override
+	public void setUp() {
+		super.setUp();
+		getFixture().getProperties().setPropertyValue(TCFImporterProperties.PROP_USE_STAX, true);
+	}
+}
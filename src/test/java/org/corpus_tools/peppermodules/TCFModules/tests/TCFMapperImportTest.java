@@ -24,6 +24,7 @@ import static org.junit.Assert.assertNotNull;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.ArrayList;
 import java.util.List;
@@ -34,6 +35,8 @@ import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamWriter;
 
 import org.corpus_tools.peppermodules.tcfModules.TCFDictionary;
+import org.corpus_tools.peppermodules.tcfModules.TCFImportListener;
+import org.corpus_tools.peppermodules.tcfModules.TCFImportStatistics;
 import org.corpus_tools.peppermodules.tcfModules.TCFImporterProperties;
 import org.corpus_tools.peppermodules.tcfModules.TCFMapperImport;
 import org.corpus_tools.salt.SALT_TYPE;
@@ -77,6 +80,7 @@ public class TCFMapperImportTest {
 	private static final String LOCATION_TEST_TOKENS = "/pepper-test/tcfImporterTestTokens.xml";
 	private static final String LOCATION_TEST_TOKENS_POS = "/pepper-test/tcfImporterTestTokensPos.xml";
 	private static final String LOCATION_TEST_TOKENS_LEMMA = "/pepper-test/tcfImporterTestTokensLemma.xml";
+	private static final String LOCATION_TEST_SYNTHETIC = "/pepper-test/tcfImporterTestSynthetic.xml";
 	private static final String LOCATION_TEST_SENTENCE = "/pepper-test/tcfImporterTestSentence.xml";
 	private static final String LOCATION_TEST_DEPENDENCIES_NO_MULTIGOVS = "/pepper-test/tcfImporterTestDependenciesNoMultigovs.xml";
 	private static final String LOCATION_TEST_CONSTITUENT_PARSING = "/pepper-test/tcfImporterTestConstituentParsing.xml";
@@ -171,6 +175,73 @@ public class TCFMapperImportTest {
 		assertEquals(doc.getDocumentGraph().getTextualDSs().get(0).getText(), getFixture().getDocument().getDocumentGraph().getTextualDSs().get(0).getText());
 	}
 
+	/**
+	 * This method tests if the tags given in the general info of the meta
+	 * data are imported as meta annotations of the document together with
+	 * their language.
+	 * 
+	 * @throws XMLStreamException
+	 * @throws FileNotFoundException
+	 */
+	@Test
+	public void testMetaTags() throws XMLStreamException, FileNotFoundException {
+		ByteArrayOutputStream outStream = new ByteArrayOutputStream();
+		XMLOutputFactory o = XMLOutputFactory.newFactory();
+		XMLStreamWriter xmlWriter = o.createXMLStreamWriter(outStream);
+
+		xmlWriter.writeStartDocument();
+		xmlWriter.writeProcessingInstruction(TCFDictionary.TCF_PI);
+		xmlWriter.writeStartElement(TCFDictionary.NS_WL, TCFDictionary.TAG_WL_D_SPIN, TCFDictionary.NS_VALUE_WL);
+		xmlWriter.writeNamespace(TCFDictionary.NS_WL, TCFDictionary.NS_VALUE_WL);
+		xmlWriter.writeNamespace(TCFDictionary.NS_MD, TCFDictionary.NS_VALUE_MD);
+		xmlWriter.writeNamespace(TCFDictionary.NS_TC, TCFDictionary.NS_VALUE_TC);
+		xmlWriter.writeAttribute(TCFDictionary.ATT_VERSION, "4.0");
+		xmlWriter.writeStartElement(TCFDictionary.NS_MD, TCFDictionary.TAG_MD_METADATA, TCFDictionary.NS_VALUE_MD);
+		xmlWriter.writeStartElement(TCFDictionary.TAG_CMD);
+		xmlWriter.writeStartElement(TCFDictionary.TAG_COMPONENTS);
+		xmlWriter.writeStartElement(TCFDictionary.TAG_WEBSERVICETOOLCHAIN);
+		xmlWriter.writeStartElement(TCFDictionary.TAG_GENERALINFO);
+		xmlWriter.writeStartElement(TCFDictionary.TAG_TAGS);
+		xmlWriter.writeStartElement(TCFDictionary.TAG_TAG);
+		xmlWriter.writeAttribute(TCFDictionary.ATT_LANG, "en");
+		xmlWriter.writeCharacters("corpus");
+		xmlWriter.writeEndElement();
+		xmlWriter.writeStartElement(TCFDictionary.TAG_TAG);
+		xmlWriter.writeAttribute(TCFDictionary.ATT_LANG, "de");
+		xmlWriter.writeCharacters("Korpus");
+		xmlWriter.writeEndElement();
+		xmlWriter.writeEndElement();// end of tags
+		xmlWriter.writeEndElement();// end of GeneralInfo
+		xmlWriter.writeEndElement();// end of WebServiceToolChain
+		xmlWriter.writeEndElement();// end of Components
+		xmlWriter.writeEndElement();// end of CMD
+		xmlWriter.writeEndElement();// end of MetaData
+		xmlWriter.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_TEXTCORPUS, TCFDictionary.NS_VALUE_TC);
+		xmlWriter.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_TEXT, TCFDictionary.NS_VALUE_TC);
+		xmlWriter.writeCharacters(EXAMPLE_TEXT);
+		xmlWriter.writeEndElement();
+		xmlWriter.writeEndElement();
+		xmlWriter.writeEndElement();
+		xmlWriter.writeEndDocument();
+
+		/* setting variables */
+		File tmpOut = new File(System.getProperty("java.io.tmpdir") + LOCATION_TEST_PRIMARY_TEXT);
+		tmpOut.getParentFile().mkdirs();
+		PrintWriter p = new PrintWriter(tmpOut);
+		p.println(outStream.toString());
+		p.close();
+		getFixture().setResourceURI(URI.createFileURI(tmpOut.getAbsolutePath()));
+
+		/* start mapper */
+
+		getFixture().mapSDocument();
+
+		/* compare */
+		String tag = TCFDictionary.TAG_WEBSERVICETOOLCHAIN + ":" + TCFDictionary.TAG_GENERALINFO + ":" + TCFDictionary.TAG_TAG;
+		assertEquals("corpus", getFixture().getDocument().getMetaAnnotation(tag + 1).getValue());
+		assertEquals("Korpus", getFixture().getDocument().getMetaAnnotation(tag + 2).getValue());
+	}
+
 	/**
 	 * This method tests if a valid TCF-XML-structure containing the tokens is
 	 * converted to salt correctly by {@link TCFMapperImport}
@@ -298,6 +369,418 @@ public class TCFMapperImportTest {
 
 	}
 
+	/**
+	 * This method tests if tokens, which can not be found in the primary text,
+	 * are skipped by {@link TCFMapperImport} while all other tokens are still
+	 * aligned with the primary text.
+	 * 
+	 * @throws XMLStreamException
+	 * @throws FileNotFoundException
+	 */
+	@Test
+	public void testSkippedToken() throws XMLStreamException, FileNotFoundException {
+		ByteArrayOutputStream outStream = new ByteArrayOutputStream();
+		XMLOutputFactory o = XMLOutputFactory.newFactory();
+		XMLStreamWriter xmlWriter = o.createXMLStreamWriter(outStream);
+
+		xmlWriter.writeStartDocument();
+		xmlWriter.writeProcessingInstruction(TCFDictionary.TCF_PI);
+		xmlWriter.writeStartElement(TCFDictionary.NS_WL, TCFDictionary.TAG_WL_D_SPIN, TCFDictionary.NS_VALUE_WL);
+		xmlWriter.writeNamespace(TCFDictionary.NS_WL, TCFDictionary.NS_VALUE_WL);
+		xmlWriter.writeNamespace(TCFDictionary.NS_TC, TCFDictionary.NS_VALUE_TC);
+		xmlWriter.writeAttribute(TCFDictionary.ATT_VERSION, "4.0");
+		xmlWriter.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_TEXTCORPUS, TCFDictionary.NS_VALUE_TC);
+		xmlWriter.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_TEXT, TCFDictionary.NS_VALUE_TC);
+		xmlWriter.writeCharacters(EXAMPLE_TEXT_SHRINK);
+		xmlWriter.writeEndElement();
+		xmlWriter.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_TOKENS, TCFDictionary.NS_VALUE_TC);
+		String[] tokens = { "I", "love", "Paris", "New", "York", "." };
+		for (int i = 0; i < tokens.length; i++) {
+			xmlWriter.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_TOKEN, TCFDictionary.NS_VALUE_TC);
+			xmlWriter.writeAttribute(TCFDictionary.ATT_ID, "t" + (i + 1));
+			xmlWriter.writeCharacters(tokens[i]);
+			xmlWriter.writeEndElement();
+		}
+		xmlWriter.writeEndElement();
+		xmlWriter.writeEndElement();
+		xmlWriter.writeEndElement();
+		xmlWriter.writeEndDocument();
+
+		/* setting variables */
+		File tmpOut = new File(System.getProperty("java.io.tmpdir") + LOCATION_TEST_TOKENS);
+		tmpOut.getParentFile().mkdirs();
+		PrintWriter p = new PrintWriter(tmpOut);
+		p.println(outStream.toString());
+		p.close();
+		getFixture().setResourceURI(URI.createFileURI(tmpOut.getAbsolutePath()));
+
+		/* start mapper */
+
+		getFixture().mapSDocument();
+
+		/* "Paris" is not part of the primary text and is skipped */
+		SDocumentGraph fixGraph = getFixture().getDocument().getDocumentGraph();
+		List<SToken> fixTokens = fixGraph.getSortedTokenByText();
+		String[] expected = { "I", "love", "New", "York", "." };
+		assertEquals(expected.length, fixTokens.size());
+		for (int i = 0; i < expected.length; i++) {
+			assertEquals(expected[i], fixGraph.getText(fixTokens.get(i)));
+		}
+	}
+
+	/**
+	 * This method tests if {@link TCFMapperImport} imports a token without id,
+	 * since the id attribute of a token is optional. The ids of the following
+	 * tokens are still resolved.
+	 * 
+	 * @throws XMLStreamException
+	 * @throws FileNotFoundException
+	 */
+	@Test
+	public void testTokenWithoutId() throws XMLStreamException, FileNotFoundException {
+		ByteArrayOutputStream outStream = new ByteArrayOutputStream();
+		XMLOutputFactory o = XMLOutputFactory.newFactory();
+		XMLStreamWriter xmlWriter = o.createXMLStreamWriter(outStream);
+
+		xmlWriter.writeStartDocument();
+		xmlWriter.writeProcessingInstruction(TCFDictionary.TCF_PI);
+		xmlWriter.writeStartElement(TCFDictionary.NS_WL, TCFDictionary.TAG_WL_D_SPIN, TCFDictionary.NS_VALUE_WL);
+		xmlWriter.writeNamespace(TCFDictionary.NS_WL, TCFDictionary.NS_VALUE_WL);
+		xmlWriter.writeNamespace(TCFDictionary.NS_TC, TCFDictionary.NS_VALUE_TC);
+		xmlWriter.writeAttribute(TCFDictionary.ATT_VERSION, "4.0");
+		xmlWriter.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_TEXTCORPUS, TCFDictionary.NS_VALUE_TC);
+		xmlWriter.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_TEXT, TCFDictionary.NS_VALUE_TC);
+		xmlWriter.writeCharacters(EXAMPLE_TEXT_SHRINK);
+		xmlWriter.writeEndElement();
+		xmlWriter.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_TOKENS, TCFDictionary.NS_VALUE_TC);
+		String[] tokens = { "I", "love", "New", "York", "." };
+		String[] pos = { "PP", "VBP", "NNP", "NNP", "." };
+		for (int i = 0; i < tokens.length; i++) {
+			xmlWriter.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_TOKEN, TCFDictionary.NS_VALUE_TC);
+			if (i != 2) {
+				xmlWriter.writeAttribute(TCFDictionary.ATT_ID, "t" + (i + 1));
+			}
+			xmlWriter.writeCharacters(tokens[i]);
+			xmlWriter.writeEndElement();
+		}
+		xmlWriter.writeEndElement();
+		xmlWriter.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_POSTAGS, TCFDictionary.NS_VALUE_TC);
+		xmlWriter.writeAttribute(TCFDictionary.ATT_TAGSET, "penn treebank");
+		for (int i = 0; i < tokens.length; i++) {
+			if (i != 2) {
+				xmlWriter.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_TAG, TCFDictionary.NS_VALUE_TC);
+				xmlWriter.writeAttribute(TCFDictionary.ATT_ID, "pt" + (i + 1));
+				xmlWriter.writeAttribute(TCFDictionary.ATT_TOKENIDS, "t" + (i + 1));
+				xmlWriter.writeCharacters(pos[i]);
+				xmlWriter.writeEndElement();
+			}
+		}
+		xmlWriter.writeEndElement();
+		xmlWriter.writeEndElement();
+		xmlWriter.writeEndElement();
+		xmlWriter.writeEndDocument();
+
+		/* setting variables */
+		File tmpOut = new File(System.getProperty("java.io.tmpdir") + LOCATION_TEST_TOKENS);
+		tmpOut.getParentFile().mkdirs();
+		PrintWriter p = new PrintWriter(tmpOut);
+		p.println(outStream.toString());
+		p.close();
+		getFixture().setResourceURI(URI.createFileURI(tmpOut.getAbsolutePath()));
+		getFixture().getProperties().setPropertyValue(TCFImporterProperties.PROP_SHRINK_TOKEN_ANNOTATIONS, true);
+
+		/* start mapper */
+
+		getFixture().mapSDocument();
+
+		/* compare, the token without id is not annotated */
+		SDocumentGraph fixGraph = getFixture().getDocument().getDocumentGraph();
+		List<SToken> fixTokens = fixGraph.getSortedTokenByText();
+		assertEquals(tokens.length, fixTokens.size());
+		for (int i = 0; i < tokens.length; i++) {
+			SToken fixToken = fixTokens.get(i);
+			assertEquals(tokens[i], fixGraph.getText(fixToken));
+			int posAnnos = 0;
+			for (SAnnotation anno : fixToken.getAnnotations()) {
+				if (anno instanceof SPOSAnnotation) {
+					assertEquals(pos[i], anno.getValue());
+					posAnnos++;
+				}
+			}
+			assertEquals(i == 2 ? 0 : 1, posAnnos);
+		}
+	}
+
+	/**
+	 * This method tests if {@link TCFMapperImport} only imports the layers
+	 * given in the property {@link TCFImporterProperties#PROP_LAYERS}. The
+	 * lemmas are not selected and therefore not imported.
+	 * 
+	 * @throws XMLStreamException
+	 * @throws FileNotFoundException
+	 */
+	@Test
+	public void testSelectedLayers() throws XMLStreamException, FileNotFoundException {
+		ByteArrayOutputStream outStream = new ByteArrayOutputStream();
+		XMLOutputFactory o = XMLOutputFactory.newFactory();
+		XMLStreamWriter xmlWriter = o.createXMLStreamWriter(outStream);
+
+		xmlWriter.writeStartDocument();
+		xmlWriter.writeProcessingInstruction(TCFDictionary.TCF_PI);
+		xmlWriter.writeStartElement(TCFDictionary.NS_WL, TCFDictionary.TAG_WL_D_SPIN, TCFDictionary.NS_VALUE_WL);
+		xmlWriter.writeNamespace(TCFDictionary.NS_WL, TCFDictionary.NS_VALUE_WL);
+		xmlWriter.writeNamespace(TCFDictionary.NS_TC, TCFDictionary.NS_VALUE_TC);
+		xmlWriter.writeAttribute(TCFDictionary.ATT_VERSION, "4.0");
+		xmlWriter.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_TEXTCORPUS, TCFDictionary.NS_VALUE_TC);
+		xmlWriter.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_TEXT, TCFDictionary.NS_VALUE_TC);
+		xmlWriter.writeCharacters(EXAMPLE_TEXT_SHRINK);
+		xmlWriter.writeEndElement();
+		String[] tokens = { "I", "love", "New", "York", "." };
+		String[] pos = { "PP", "VBP", "NNP", "NNP", "." };
+		xmlWriter.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_TOKENS, TCFDictionary.NS_VALUE_TC);
+		for (int i = 0; i < tokens.length; i++) {
+			xmlWriter.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_TOKEN, TCFDictionary.NS_VALUE_TC);
+			xmlWriter.writeAttribute(TCFDictionary.ATT_ID, "t" + (i + 1));
+			xmlWriter.writeCharacters(tokens[i]);
+			xmlWriter.writeEndElement();
+		}
+		xmlWriter.writeEndElement();
+		xmlWriter.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_LEMMAS, TCFDictionary.NS_VALUE_TC);
+		for (int i = 0; i < tokens.length; i++) {
+			xmlWriter.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_LEMMA, TCFDictionary.NS_VALUE_TC);
+			xmlWriter.writeAttribute(TCFDictionary.ATT_ID, "le" + (i + 1));
+			xmlWriter.writeAttribute(TCFDictionary.ATT_TOKENIDS, "t" + (i + 1));
+			xmlWriter.writeCharacters(tokens[i]);
+			xmlWriter.writeEndElement();
+		}
+		xmlWriter.writeEndElement();
+		xmlWriter.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_POSTAGS, TCFDictionary.NS_VALUE_TC);
+		xmlWriter.writeAttribute(TCFDictionary.ATT_TAGSET, "penn treebank");
+		for (int i = 0; i < tokens.length; i++) {
+			xmlWriter.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_TAG, TCFDictionary.NS_VALUE_TC);
+			xmlWriter.writeAttribute(TCFDictionary.ATT_ID, "pt" + (i + 1));
+			xmlWriter.writeAttribute(TCFDictionary.ATT_TOKENIDS, "t" + (i + 1));
+			xmlWriter.writeCharacters(pos[i]);
+			xmlWriter.writeEndElement();
+		}
+		xmlWriter.writeEndElement();
+		xmlWriter.writeEndElement();
+		xmlWriter.writeEndElement();
+		xmlWriter.writeEndDocument();
+
+		/* setting variables */
+		File tmpOut = new File(System.getProperty("java.io.tmpdir") + LOCATION_TEST_TOKENS_LEMMA);
+		tmpOut.getParentFile().mkdirs();
+		PrintWriter p = new PrintWriter(tmpOut);
+		p.println(outStream.toString());
+		p.close();
+		getFixture().setResourceURI(URI.createFileURI(tmpOut.getAbsolutePath()));
+		getFixture().getProperties().setPropertyValue(TCFImporterProperties.PROP_SHRINK_TOKEN_ANNOTATIONS, true);
+		getFixture().getProperties().setPropertyValue(TCFImporterProperties.PROP_LAYERS, "postags");
+
+		/* start mapper */
+
+		getFixture().mapSDocument();
+
+		/* compare */
+		SDocumentGraph fixGraph = getFixture().getDocument().getDocumentGraph();
+		assertEquals(1, fixGraph.getLayerByName(TCFMapperImport.LAYER_POS).size());
+		assertEquals(0, fixGraph.getLayerByName(TCFMapperImport.LAYER_LEMMA).size());
+		List<SToken> fixTokens = fixGraph.getSortedTokenByText();
+		assertEquals(tokens.length, fixTokens.size());
+		for (int i = 0; i < tokens.length; i++) {
+			SToken fixToken = fixTokens.get(i);
+			assertEquals(tokens[i], fixGraph.getText(fixToken));
+			int posAnnos = 0;
+			for (SAnnotation anno : fixToken.getAnnotations()) {
+				if (anno instanceof SLemmaAnnotation) {
+					throw new AssertionError("lemma layer was imported");
+				} else if (anno instanceof SPOSAnnotation) {
+					assertEquals(pos[i], anno.getValue());
+					posAnnos++;
+				}
+			}
+			assertEquals(1, posAnnos);
+		}
+	}
+
+	/**
+	 * This method tests if the lemmas are imported together with a selected
+	 * lexical-semantic layer, since its relations are annotated at the lemmas.
+	 * The antonymy layer is not selected and therefore not imported.
+	 * 
+	 * @throws XMLStreamException
+	 * @throws FileNotFoundException
+	 */
+	@Test
+	public void testSelectedLexicalSemantics() throws XMLStreamException, FileNotFoundException {
+		ByteArrayOutputStream outStream = new ByteArrayOutputStream();
+		XMLOutputFactory o = XMLOutputFactory.newFactory();
+		XMLStreamWriter xmlWriter = o.createXMLStreamWriter(outStream);
+
+		xmlWriter.writeStartDocument();
+		xmlWriter.writeProcessingInstruction(TCFDictionary.TCF_PI);
+		xmlWriter.writeStartElement(TCFDictionary.NS_WL, TCFDictionary.TAG_WL_D_SPIN, TCFDictionary.NS_VALUE_WL);
+		xmlWriter.writeNamespace(TCFDictionary.NS_WL, TCFDictionary.NS_VALUE_WL);
+		xmlWriter.writeNamespace(TCFDictionary.NS_TC, TCFDictionary.NS_VALUE_TC);
+		xmlWriter.writeAttribute(TCFDictionary.ATT_VERSION, "4.0");
+		xmlWriter.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_TEXTCORPUS, TCFDictionary.NS_VALUE_TC);
+		xmlWriter.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_TEXT, TCFDictionary.NS_VALUE_TC);
+		xmlWriter.writeCharacters(EXAMPLE_TEXT_SHRINK);
+		xmlWriter.writeEndElement();
+		String[] tokens = { "I", "love", "New", "York", "." };
+		xmlWriter.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_TOKENS, TCFDictionary.NS_VALUE_TC);
+		for (int i = 0; i < tokens.length; i++) {
+			xmlWriter.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_TOKEN, TCFDictionary.NS_VALUE_TC);
+			xmlWriter.writeAttribute(TCFDictionary.ATT_ID, "t" + (i + 1));
+			xmlWriter.writeCharacters(tokens[i]);
+			xmlWriter.writeEndElement();
+		}
+		xmlWriter.writeEndElement();
+		xmlWriter.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_LEMMAS, TCFDictionary.NS_VALUE_TC);
+		for (int i = 0; i < tokens.length; i++) {
+			xmlWriter.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_LEMMA, TCFDictionary.NS_VALUE_TC);
+			xmlWriter.writeAttribute(TCFDictionary.ATT_ID, "le" + (i + 1));
+			xmlWriter.writeAttribute(TCFDictionary.ATT_TOKENIDS, "t" + (i + 1));
+			xmlWriter.writeCharacters(tokens[i]);
+			xmlWriter.writeEndElement();
+		}
+		xmlWriter.writeEndElement();
+		xmlWriter.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_SYNONYMY, TCFDictionary.NS_VALUE_TC);
+		xmlWriter.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_ORTHFORM, TCFDictionary.NS_VALUE_TC);
+		xmlWriter.writeAttribute(TCFDictionary.ATT_LEMMAREFS, "le2");
+		xmlWriter.writeCharacters("admire, like");
+		xmlWriter.writeEndElement();
+		xmlWriter.writeEndElement();// end of synonymy
+		xmlWriter.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_ANTONYMY, TCFDictionary.NS_VALUE_TC);
+		xmlWriter.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_ORTHFORM, TCFDictionary.NS_VALUE_TC);
+		xmlWriter.writeAttribute(TCFDictionary.ATT_LEMMAREFS, "le2");
+		xmlWriter.writeCharacters("hate, dislike");
+		xmlWriter.writeEndElement();
+		xmlWriter.writeEndElement();// end of antonymy
+		xmlWriter.writeEndElement();
+		xmlWriter.writeEndElement();
+		xmlWriter.writeEndDocument();
+
+		/* setting variables */
+		File tmpOut = new File(System.getProperty("java.io.tmpdir") + LOCATION_TEST_LEXICALSEMANTICS);
+		tmpOut.getParentFile().mkdirs();
+		PrintWriter p = new PrintWriter(tmpOut);
+		p.println(outStream.toString());
+		p.close();
+		getFixture().setResourceURI(URI.createFileURI(tmpOut.getAbsolutePath()));
+		getFixture().getProperties().setPropertyValue(TCFImporterProperties.PROP_SHRINK_TOKEN_ANNOTATIONS, true);
+		getFixture().getProperties().setPropertyValue(TCFImporterProperties.PROP_LAYERS, "synonymy");
+
+		/* start mapper */
+
+		getFixture().mapSDocument();
+
+		/* compare */
+		SDocumentGraph fixGraph = getFixture().getDocument().getDocumentGraph();
+		assertEquals(1, fixGraph.getLayerByName(TCFMapperImport.LAYER_LEMMA).size());
+		List<SToken> fixTokens = fixGraph.getSortedTokenByText();
+		assertEquals(tokens.length, fixTokens.size());
+		SLemmaAnnotation lemma = null;
+		for (SAnnotation anno : fixTokens.get(1).getAnnotations()) {
+			if (anno instanceof SLemmaAnnotation) {
+				lemma = (SLemmaAnnotation) anno;
+			}
+		}
+		assertNotNull(lemma);
+		assertEquals("admire, like", lemma.getLabel(TCFMapperImport.LAYER_LS, TCFDictionary.TAG_TC_SYNONYMY).getValue());
+		assertEquals(null, lemma.getLabel(TCFMapperImport.LAYER_LS, TCFDictionary.TAG_TC_ANTONYMY));
+	}
+
+	/**
+	 * This test imports a synthetic document containing all layers the
+	 * {@link TCFGenerator} writes.
+	 */
+	@Test
+	public void testSyntheticDocument() throws IOException {
+		File tmpOut = new File(System.getProperty("java.io.tmpdir") + LOCATION_TEST_SYNTHETIC);
+		tmpOut.getParentFile().mkdirs();
+		new TCFGenerator(1000).setSentenceLength(10).write(tmpOut);
+		getFixture().setResourceURI(URI.createFileURI(tmpOut.getAbsolutePath()));
+
+		/* start mapper */
+
+		getFixture().mapSDocument();
+
+		/* compare */
+		SDocumentGraph fixGraph = getFixture().getDocument().getDocumentGraph();
+		assertEquals(1000, fixGraph.getTokens().size());
+		/* each sentence of ten tokens has a tree of nine structures */
+		assertEquals(900, fixGraph.getStructures().size());
+		int dependencies = 0;
+		int references = 0;
+		for (SPointingRelation sPointingRel : fixGraph.getPointingRelations()) {
+			if (TCFMapperImport.STYPE_DEPENDENCY.equals(sPointingRel.getType())) {
+				dependencies++;
+			} else if (TCFMapperImport.STYPE_REFERENCE.equals(sPointingRel.getType())) {
+				references++;
+			}
+		}
+		/* all tokens but the first of a sentence have a governor */
+		assertEquals(900, dependencies);
+		/* all tokens but the last of a sentence are mentions */
+		assertEquals(900 / TCFGenerator.CHAIN_LENGTH * (TCFGenerator.CHAIN_LENGTH - 1), references);
+	}
+
+	/**
+	 * This test checks the counters {@link TCFMapperImport} passes to a
+	 * {@link TCFImportListener} and stores as meta annotations, if the
+	 * property {@link TCFImporterProperties#PROP_STATISTICS} is set.
+	 */
+	@Test
+	public void testStatistics() throws IOException {
+		File tmpOut = new File(System.getProperty("java.io.tmpdir") + LOCATION_TEST_SYNTHETIC);
+		tmpOut.getParentFile().mkdirs();
+		new TCFGenerator(1000).setSentenceLength(10).write(tmpOut);
+		getFixture().setResourceURI(URI.createFileURI(tmpOut.getAbsolutePath()));
+		getFixture().getProperties().setPropertyValue(TCFImporterProperties.PROP_STATISTICS, true);
+		final List<TCFImportStatistics> collected = new ArrayList<TCFImportStatistics>();
+		getFixture().addImportListener(new TCFImportListener() {
+			@Override
+			public void documentImported(SDocument sDocument, TCFImportStatistics statistics) {
+				collected.add(statistics);
+			}
+		});
+
+		/* start mapper */
+
+		getFixture().mapSDocument();
+
+		/* compare */
+		assertEquals(1, collected.size());
+		TCFImportStatistics statistics = collected.get(0);
+		SDocumentGraph fixGraph = getFixture().getDocument().getDocumentGraph();
+		assertEquals(fixGraph.getNodes().size(), statistics.getNodeCount());
+		assertEquals(fixGraph.getRelations().size(), statistics.getRelationCount());
+		assertNotEquals(0, statistics.getAnnotationCount());
+		TCFImportStatistics.LayerStatistics tokens = statistics.getLayer(TCFDictionary.TAG_TC_TOKENS);
+		assertNotNull(tokens);
+		assertEquals(1000, tokens.getElementCount());
+		assertEquals(1000, tokens.getNodeCount());
+		/* each token is connected to the primary text */
+		assertEquals(1000, tokens.getRelationCount());
+		assertEquals(0, tokens.getAnnotationCount());
+		TCFImportStatistics.LayerStatistics postags = statistics.getLayer(TCFDictionary.TAG_TC_POSTAGS);
+		assertNotNull(postags);
+		/* each token is annotated with its POS */
+		assertEquals(1000, postags.getAnnotationCount());
+		TCFImportStatistics.LayerStatistics depparsing = statistics.getLayer(TCFDictionary.TAG_TC_DEPPARSING);
+		assertNotNull(depparsing);
+		/* one parse per sentence containing a dependency per token */
+		assertEquals(100 + 1000, depparsing.getElementCount());
+		assertEquals(900, depparsing.getRelationCount());
+		/* each dependency is annotated with its function */
+		assertEquals(900, depparsing.getAnnotationCount());
+		assertEquals(1000, getFixture().getDocument().getMetaAnnotation(TCFImportStatistics.NAMESPACE + "::" + TCFDictionary.TAG_TC_TOKENS + ":elements").getValue());
+		assertEquals(900, getFixture().getDocument().getMetaAnnotation(TCFImportStatistics.NAMESPACE + "::" + TCFDictionary.TAG_TC_DEPPARSING + ":annotations").getValue());
+		assertEquals(statistics.getAnnotationCount(), getFixture().getDocument().getMetaAnnotation(TCFImportStatistics.NAMESPACE + "::annotations").getValue());
+	}
+
 	/**
 	 * This method tests if a valid TCF-XML-structure containing pos-tagged
 	 * tokens is converted to salt correctly by {@link TCFMapperImport}. In this
@@ -1650,6 +2133,74 @@ public class TCFMapperImportTest {
 		assertEquals(diffs.toString(), 0, diffs.size());
 	}
 
+	/**
+	 * tests that a deep tree of constituents is read without running out of
+	 * stack
+	 */
+	@Test
+	public void testDeepConstituentParsing() throws FileNotFoundException, XMLStreamException {
+		final int depth = 20000;
+		ByteArrayOutputStream outStream = new ByteArrayOutputStream();
+		XMLOutputFactory o = XMLOutputFactory.newFactory();
+		XMLStreamWriter xmlWriter = o.createXMLStreamWriter(outStream);
+
+		xmlWriter.writeStartDocument();
+		xmlWriter.writeProcessingInstruction(TCFDictionary.TCF_PI);
+		xmlWriter.writeStartElement(TCFDictionary.NS_WL, TCFDictionary.TAG_WL_D_SPIN, TCFDictionary.NS_VALUE_WL);
+		xmlWriter.writeNamespace(TCFDictionary.NS_WL, TCFDictionary.NS_VALUE_WL);
+		xmlWriter.writeNamespace(TCFDictionary.NS_TC, TCFDictionary.NS_VALUE_TC);
+		xmlWriter.writeAttribute(TCFDictionary.ATT_VERSION, "0.4");
+		xmlWriter.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_TEXTCORPUS, TCFDictionary.NS_VALUE_TC);
+		xmlWriter.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_TEXT, TCFDictionary.NS_VALUE_TC);
+		xmlWriter.writeCharacters("I");
+		xmlWriter.writeEndElement();
+		xmlWriter.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_TOKENS, TCFDictionary.NS_VALUE_TC);
+		xmlWriter.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_TOKEN, TCFDictionary.NS_VALUE_TC);
+		xmlWriter.writeAttribute(TCFDictionary.ATT_ID, "t1");
+		xmlWriter.writeCharacters("I");
+		xmlWriter.writeEndElement();
+		xmlWriter.writeEndElement();
+		xmlWriter.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_PARSING, TCFDictionary.NS_VALUE_TC);
+		xmlWriter.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_PARSE, TCFDictionary.NS_VALUE_TC);
+		for (int i = 0; i < depth; i++) {
+			xmlWriter.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_CONSTITUENT, TCFDictionary.NS_VALUE_TC);
+			xmlWriter.writeAttribute(TCFDictionary.ATT_CAT, "X");
+			xmlWriter.writeAttribute(TCFDictionary.ATT_ID, "c" + (i + 1));
+		}
+		/* the innermost constituent covers the token */
+		xmlWriter.writeStartElement(TCFDictionary.NS_TC, TCFDictionary.TAG_TC_CONSTITUENT, TCFDictionary.NS_VALUE_TC);
+		xmlWriter.writeAttribute(TCFDictionary.ATT_CAT, "PP");
+		xmlWriter.writeAttribute(TCFDictionary.ATT_ID, "c" + (depth + 1));
+		xmlWriter.writeAttribute(TCFDictionary.ATT_TOKENIDS, "t1");
+		xmlWriter.writeEndElement();
+		for (int i = 0; i < depth; i++) {
+			xmlWriter.writeEndElement();
+		}
+		xmlWriter.writeEndElement();// end of parse
+		xmlWriter.writeEndElement();// end of parsing
+		xmlWriter.writeEndElement();// end of TextCorpus
+		xmlWriter.writeEndElement();
+		xmlWriter.writeEndDocument();
+
+		/* setting variables */
+		File tmpOut = new File(System.getProperty("java.io.tmpdir") + LOCATION_TEST_CONSTITUENT_PARSING);
+		tmpOut.getParentFile().mkdirs();
+		PrintWriter p = new PrintWriter(tmpOut);
+		p.println(outStream.toString());
+		p.close();
+		getFixture().setResourceURI(URI.createFileURI(tmpOut.getAbsolutePath()));
+		getFixture().getProperties().setPropertyValue(TCFImporterProperties.PROP_SHRINK_TOKEN_ANNOTATIONS, true);
+
+		/* start mapper */
+
+		getFixture().mapSDocument();
+
+		/* each structure dominates the next one or the token */
+		SDocumentGraph fixGraph = getFixture().getDocument().getDocumentGraph();
+		assertEquals(depth, fixGraph.getStructures().size());
+		assertEquals(depth, fixGraph.getDominanceRelations().size());
+	}
+
 	/**
 	 * This method tests if a valid TCF-XML-structure containing constituent
 	 * annotations is converted to salt correctly by {@link TCFMapperImport}.